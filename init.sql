@@ -5,6 +5,8 @@ CREATE DATABASE IF NOT EXISTS test
 
 USE cosmoport;
 
+DROP TABLE IF EXISTS flyway_schema_history;
+DROP TABLE IF EXISTS rating_recompute;
 DROP TABLE IF EXISTS ship;
 
 CREATE TABLE ship
@@ -0,0 +1,60 @@
+package com.space.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Cost of RequestMetricsFilter around a handler that writes a 1 KB body, against the bare handler
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestMetricsFilterBenchmark {
+
+    private final byte[] body = new byte[1024];
+    private final FilterChain handler = (request, response) -> {
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/rest/ships/{id}");
+        response.getOutputStream().write(body);
+    };
+
+    private MeterRegistry registry;
+    private RequestMetricsFilter filter;
+
+    @Setup
+    public void setup() {
+        registry = new MetricsConfig().meterRegistry();
+        filter = new RequestMetricsFilter(registry);
+    }
+
+    @TearDown
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse bare() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.doFilter(request(), response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filtered() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, handler);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/rest/ships/1");
+    }
+}
@@ -0,0 +1,133 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Reading and validating a POST /rest/ships body, as done for every create, patch and bulk record:
+// ShipRequest + ShipValidator against the Map<String, String> body and string parsing they replaced.
+// Compare gc.alloc.rate.norm from -prof gc.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CreateShipValidationBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader TYPED_READER = MAPPER.readerFor(ShipRequest.class);
+    private static final ObjectReader MAP_READER = MAPPER.readerFor(new TypeReference<Map<String, String>>() {});
+
+    private final byte[] valid = ("{\"name\":\"Orion III\",\"planet\":\"Mars\",\"shipType\":\"MERCHANT\"," +
+            "\"prodDate\":32998274577071,\"isUsed\":true,\"speed\":0.82,\"crewSize\":617}")
+            .getBytes(StandardCharsets.UTF_8);
+    // fails on the last check
+    private final byte[] invalid = ("{\"name\":\"Orion III\",\"planet\":\"Mars\",\"shipType\":\"MERCHANT\"," +
+            "\"prodDate\":32998274577071,\"isUsed\":true,\"speed\":0.82,\"crewSize\":10000}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public String validTyped() throws IOException {
+        return ShipValidator.readNewShip(TYPED_READER.readValue(valid), new Ship());
+    }
+
+    @Benchmark
+    public String invalidTyped() throws IOException {
+        return ShipValidator.readNewShip(TYPED_READER.readValue(invalid), new Ship());
+    }
+
+    @Benchmark
+    public String validMap() throws IOException {
+        return readNewShip(MAP_READER.readValue(valid), new Ship());
+    }
+
+    @Benchmark
+    public String invalidMap() throws IOException {
+        return readNewShip(MAP_READER.readValue(invalid), new Ship());
+    }
+
+    // The create checks as they were done on the Map body
+    private static String readNewShip(Map<String, String> body, Ship ship) {
+        String name = body.get("name");
+        if (name == null || name.isEmpty() || name.length() > 50) {
+            return "name";
+        }
+        ship.setName(name);
+
+        String planet = body.get("planet");
+        if (planet == null || planet.isEmpty() || planet.length() > 50) {
+            return "planet";
+        }
+        ship.setPlanet(planet);
+
+        String shipTypeText = body.get("shipType");
+        if (shipTypeText == null || shipTypeText.isEmpty()) {
+            return "shipType";
+        }
+        ship.setShipType(ShipType.valueOf(shipTypeText));
+
+        String prodDateLongText = body.get("prodDate");
+        if (prodDateLongText == null || prodDateLongText.isEmpty()) {
+            return "prodDate";
+        }
+        Long prodDateLong;
+        try {
+            prodDateLong = Long.parseLong(prodDateLongText);
+        } catch (NumberFormatException e) {
+            return "prodDate";
+        }
+        Long date2800Long = new GregorianCalendar(2800, 0, 1).getTimeInMillis();
+        Long date3200Long = new GregorianCalendar(3020, 0, 1).getTimeInMillis();
+        if (prodDateLong < 0 || prodDateLong < date2800Long || prodDateLong >= date3200Long) {
+            return "prodDate";
+        }
+        ship.setProdDate(new Date(prodDateLong));
+
+        String isUsedText = body.get("isUsed");
+        ship.setUsed(isUsedText != null && !isUsedText.isEmpty() && Boolean.parseBoolean(isUsedText));
+
+        String speedText = body.get("speed");
+        if (speedText == null || speedText.isEmpty()) {
+            return "speed";
+        }
+        Double speed;
+        try {
+            speed = Double.parseDouble(speedText);
+        } catch (NumberFormatException e) {
+            return "speed";
+        }
+        speed = Math.round(speed * 100) / 100.0;
+        if (speed < 0.01d || speed > 0.99d) {
+            return "speed";
+        }
+        ship.setSpeed(speed);
+
+        String crewSizeText = body.get("crewSize");
+        if (crewSizeText == null || crewSizeText.isEmpty()) {
+            return "crewSize";
+        }
+        Integer crewSize;
+        try {
+            crewSize = Integer.parseInt(crewSizeText);
+        } catch (NumberFormatException e) {
+            return "crewSize";
+        }
+        if (crewSize < 1 || crewSize > 9999) {
+            return "crewSize";
+        }
+        ship.setCrewSize(crewSize);
+
+        return null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.space.config.AppConfig;
+import com.space.model.Ship;
+import com.space.service.ShipDataGenerator;
+import com.space.service.ShipService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// POST /rest/ships/bulk through the controller: NDJSON parsing, validation, rating and the JDBC batches,
+// against the embedded profile's database. Scores are ships per second for each bulk.batchSize.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ShipBulkCreateBenchmark {
+
+    private static final int SHIPS = 10000;
+
+    @Param({"100", "1000", "10000"})
+    private int batchSize;
+
+    private AnnotationConfigApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private ShipController controller;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        System.setProperty("spring.profiles.active", "embedded");
+        System.setProperty("seed.ships", "0");
+
+        context = new AnnotationConfigApplicationContext(AppConfig.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        controller = new ShipController(context.getBean(ShipService.class), batchSize);
+
+        ShipDataGenerator generator = new ShipDataGenerator(null, 0, 3019);
+        Random random = new Random(3019);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = new JsonFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            for (int i = 0; i < SHIPS; i++) {
+                Ship ship = generator.next(random);
+                json.writeStartObject();
+                json.writeStringField("name", ship.getName());
+                json.writeStringField("planet", ship.getPlanet());
+                json.writeStringField("shipType", ship.getShipType().name());
+                json.writeNumberField("prodDate", ship.getProdDate().getTime());
+                json.writeBooleanField("isUsed", ship.getUsed());
+                json.writeNumberField("speed", ship.getSpeed());
+                json.writeNumberField("crewSize", ship.getCrewSize());
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+        payload = out.toByteArray();
+    }
+
+    // keeps the table from growing across iterations
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE ship");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHIPS)
+    public ResponseEntity<?> createShips() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/rest/ships/bulk");
+        request.setContent(payload);
+        return controller.createShips(request);
+    }
+}
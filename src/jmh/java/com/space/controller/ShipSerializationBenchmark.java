@@ -0,0 +1,73 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.WebConfig;
+import com.space.model.Ship;
+import com.space.service.ShipDataGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Writing a page of ships with the ObjectMapper WebConfig registers for the REST controllers (ShipSerializer),
+// against the reflective field serializer it used before; compare gc.alloc.rate.norm from -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShipSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private ObjectMapper reflective;
+    private List<Ship> ships;
+    // stands in for the servlet output stream the converter writes to; reused, so only serializer garbage counts
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setup() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new WebConfig().configureMessageConverters(converters);
+        mapper = ((MappingJackson2HttpMessageConverter) converters.get(0)).getObjectMapper();
+
+        reflective = new ObjectMapper();
+        reflective.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        reflective.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+        ShipDataGenerator generator = new ShipDataGenerator(null, 0, 3019);
+        Random random = new Random(3019);
+        ships = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Ship ship = generator.next(random);
+            ship.setId((long) i + 1);
+            ship.setRating(Math.round(random.nextDouble() * 1000) / 100.0);
+            ships.add(ship);
+        }
+    }
+
+    @Benchmark
+    public int writeShips() throws IOException {
+        out.reset();
+        mapper.writeValue(out, ships);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeShipsReflective() throws IOException {
+        out.reset();
+        reflective.writeValue(out, ships);
+        return out.size();
+    }
+}
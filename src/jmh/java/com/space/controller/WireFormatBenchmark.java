@@ -0,0 +1,80 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.space.config.WebConfig;
+import com.space.model.Ship;
+import com.space.service.ShipDataGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// A page of ships in each encoding WebConfig negotiates on Accept: encode on the server,
+// decode as a client would. The payload size per format is printed by the setup.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+
+    @Param({"application/json", "application/x-jackson-smile", "application/cbor"})
+    private String format;
+
+    @Param({"1000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private ObjectReader reader;
+    private List<Ship> ships;
+    private byte[] payload;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setup() throws IOException {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new WebConfig().configureMessageConverters(converters);
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter.getSupportedMediaTypes().contains(MediaType.parseMediaType(format))) {
+                mapper = ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+                break;
+            }
+        }
+        reader = mapper.readerFor(new TypeReference<List<Ship>>() {});
+
+        ShipDataGenerator generator = new ShipDataGenerator(null, 0, 3019);
+        Random random = new Random(3019);
+        ships = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Ship ship = generator.next(random);
+            ship.setId((long) i + 1);
+            ship.setRating(Math.round(random.nextDouble() * 1000) / 100.0);
+            ships.add(ship);
+        }
+
+        payload = mapper.writeValueAsBytes(ships);
+        System.out.println(format + ": " + payload.length + " bytes for " + size + " ships");
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        out.reset();
+        mapper.writeValue(out, ships);
+        return out.size();
+    }
+
+    @Benchmark
+    public List<Ship> decode() throws IOException {
+        return reader.readValue(payload);
+    }
+}
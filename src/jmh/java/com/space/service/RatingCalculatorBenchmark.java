@@ -0,0 +1,60 @@
+package com.space.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// RatingCalculator against the Calendar-based calcRating it replaced; compare gc.alloc.rate.norm from -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RatingCalculatorBenchmark {
+    private static final int SHIPS = 1024;
+
+    private final RatingCalculator calculator = new RatingCalculator();
+    private final long[] prodDates = new long[SHIPS];
+    private final double[] speeds = new double[SHIPS];
+    private final boolean[] used = new boolean[SHIPS];
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(3019);
+        long from = new GregorianCalendar(2800, Calendar.JANUARY, 1).getTimeInMillis();
+        long to = new GregorianCalendar(3020, Calendar.JANUARY, 1).getTimeInMillis();
+        for (int i = 0; i < SHIPS; i++) {
+            prodDates[i] = from + (long) (random.nextDouble() * (to - from));
+            speeds[i] = Math.round((0.01 + random.nextDouble() * 0.98) * 100) / 100.0;
+            used[i] = random.nextBoolean();
+        }
+    }
+
+    @Benchmark
+    public double ratingCalculator() {
+        int i = next++ & (SHIPS - 1);
+        return calculator.rating(speeds[i], prodDates[i], used[i]);
+    }
+
+    @Benchmark
+    public Double calendarRating() {
+        int i = next++ & (SHIPS - 1);
+        return calendarRating(speeds[i], prodDates[i], used[i]);
+    }
+
+    private static Double calendarRating(Double speed, Long prodDateLong, Boolean isUsed) {
+        double k = isUsed ? 0.5 : 1;
+
+        Calendar c = Calendar.getInstance();
+        c.setTimeInMillis(prodDateLong);
+        Double rating = 80 * speed * k / (3019 - c.get(Calendar.YEAR) + 1);
+        rating = Math.round(rating * 100)/100.0;
+
+        return rating;
+    }
+}
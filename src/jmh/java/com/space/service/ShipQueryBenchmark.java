@@ -0,0 +1,63 @@
+package com.space.service;
+
+import com.space.config.AppConfig;
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+// getAll/getCount through the service, repository and Hibernate, against the embedded profile's database
+// seeded by ShipDataGenerator
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ShipQueryBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    private AnnotationConfigApplicationContext context;
+    private ShipService shipService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("spring.profiles.active", "embedded");
+        System.setProperty("seed.ships", String.valueOf(rows));
+        // the caches would hide the queries being measured
+        System.setProperty("cache.ship.maxSize", "0");
+        System.setProperty("cache.query.maxShips", "0");
+
+        context = new AnnotationConfigApplicationContext(AppConfig.class);
+        shipService = context.getBean(ShipService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Ship> getAllFirstPage() {
+        return shipService.getAll(null, null, null, null, null, null, null,
+                null, null, null, null, null, null, ShipOrder.ID, 0, 20);
+    }
+
+    @Benchmark
+    public Page<Ship> getAllFiltered() {
+        return shipService.getAll(null, null, "ar", ShipType.MILITARY, null, null, false,
+                0.5, null, null, null, null, null, ShipOrder.RATING, 2, 20);
+    }
+
+    @Benchmark
+    public Long getCountFiltered() {
+        return shipService.getCount(null, null, "ar", ShipType.MILITARY, null, null, false,
+                0.5, null, null, null, null, null);
+    }
+}
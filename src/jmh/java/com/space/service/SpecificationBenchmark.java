@@ -0,0 +1,42 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// The per-request criteria work of getAll/getCount: collecting the filters, building the Specification
+// and the query cache key
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpecificationBenchmark {
+
+    private final Date after = new Date(33000000000000L);
+
+    @Benchmark
+    public Specification<Ship> build() {
+        return criteria().build();
+    }
+
+    @Benchmark
+    public String key() {
+        return criteria().key();
+    }
+
+    private ShipSpecificationsBuilder criteria() {
+        return new ShipSpecificationsBuilder()
+                .with("planet", ":", "ar")
+                .with("shipType", ":", ShipType.MILITARY)
+                .with("isUsed", ":", false)
+                .with("speed", ">", 0.2)
+                .with("crewSize", "<", 1000)
+                .with("prodDate", ">", after);
+    }
+}
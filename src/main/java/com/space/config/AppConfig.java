@@ -1,11 +1,24 @@
 package com.space.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -15,15 +28,32 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 @Configuration
 @EnableTransactionManagement
 @ComponentScan("com.space.service")
 @EnableJpaRepositories(basePackages = "com.space.repository")
+// -Dspring.profiles.active=embedded layers application-embedded.properties over the MySQL defaults
+@PropertySource(value = {"classpath:application.properties",
+        "classpath:application-${spring.profiles.active:default}.properties"},
+        ignoreResourceNotFound = true)
+@Import(MetricsConfig.class)
 public class AppConfig {
 
+    private final Environment env;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public AppConfig(Environment env, MeterRegistry meterRegistry) {
+        this.env = env;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
+    @DependsOn("flyway")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource());
@@ -36,14 +66,73 @@ public class AppConfig {
         return em;
     }
 
+    // Lazy so that ReplicaRoutingDataSource picks the target once the transaction's read-only flag is set
     @Bean
+    @Primary
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/cosmoport?serverTimezone=UTC");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+        return new LazyConnectionDataSourceProxy(routingDataSource());
+    }
+
+    // Primary pool plus one pool per db.replicas.urls entry; without replicas every connection is the primary's
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource() {
+        HikariDataSource primary = pool("cosmoport", env.getRequiredProperty("db.url"),
+                env.getRequiredProperty("db.username"), env.getRequiredProperty("db.password"));
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : env.getProperty("db.replicas.urls", "").split(",")) {
+            if (!url.trim().isEmpty()) {
+                replicas.add(pool("cosmoport-replica-" + (replicas.size() + 1), url.trim(),
+                        env.getProperty("db.replicas.username", env.getRequiredProperty("db.username")),
+                        env.getProperty("db.replicas.password", env.getRequiredProperty("db.password"))));
+            }
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas,
+                env.getProperty("db.replicas.readYourWritesMillis", Long.class, 2000L),
+                env.getProperty("db.replicas.healthCheckMillis", Long.class, 5000L));
+    }
+
+    private HikariDataSource pool(String name, String url, String username, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDriverClassName(env.getRequiredProperty("db.driver"));
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+
+        config.setMinimumIdle(env.getProperty("db.pool.minIdle", Integer.class, 2));
+        config.setMaximumPoolSize(env.getProperty("db.pool.maxSize", Integer.class, 10));
+        config.setConnectionTimeout(env.getProperty("db.pool.connectionTimeout", Long.class, 30000L));
+        config.setIdleTimeout(env.getProperty("db.pool.idleTimeout", Long.class, 600000L));
+        config.setMaxLifetime(env.getProperty("db.pool.maxLifetime", Long.class, 1800000L));
+
+        // Connector/J settings; other drivers (H2 in the embedded profile) reject unknown properties
+        if (config.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("cachePrepStmts", env.getProperty("db.pool.cachePrepStmts", "true"));
+            config.addDataSourceProperty("prepStmtCacheSize", env.getProperty("db.pool.prepStmtCacheSize", "250"));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", env.getProperty("db.pool.prepStmtCacheSqlLimit", "2048"));
+            config.addDataSourceProperty("useServerPrepStmts", env.getProperty("db.pool.useServerPrepStmts", "true"));
+            // lets Connector/J send a JDBC batch of inserts as one multi-row INSERT
+            config.addDataSourceProperty("rewriteBatchedStatements", env.getProperty("db.pool.rewriteBatchedStatements", "true"));
+        }
+
+        // hikaricp.connections.active/idle/pending and the acquire (wait time) timer, exported over JMX
+        config.setMetricRegistry(meterRegistry);
+        config.setRegisterMbeans(true);
+
+        return new HikariDataSource(config);
+    }
+
+    // Databases created by init.sql already hold the V1 table and are baselined at that version
+    @Bean(initMethod = "migrate")
+    public Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource())
+                .locations(env.getProperty("db.migrations", "classpath:db/migration/mysql"))
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
     }
 
     @Bean
@@ -59,9 +148,24 @@ public class AppConfig {
         return new PersistenceExceptionTranslationPostProcessor();
     }
 
+    // hibernate.* session, transaction and entity meters from the statistics enabled below. No per-query
+    // meters: they are tagged with the query text, and criteria queries inline their numeric filter values, so
+    // every new value would add series that are never removed. Statements per request come from
+    // RequestMetricsFilter instead.
+    @Bean
+    public HibernateMetrics hibernateMetrics(EntityManagerFactory emf) {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        HibernateMetrics metrics = new HibernateMetrics(sessionFactory, "cosmoport", Tags.empty());
+        metrics.bindTo(meterRegistry);
+        return metrics;
+    }
+
     private Properties additionalProperties() {
         Properties properties = new Properties();
-        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        properties.setProperty("hibernate.dialect",
+                env.getProperty("hibernate.dialect", MySQLFullTextDialect.class.getName()));
+        properties.setProperty("hibernate.generate_statistics", env.getProperty("hibernate.statistics", "true"));
+        properties.setProperty("hibernate.session_factory.statement_inspector", SqlStatementInspector.class.getName());
 
         return properties;
     }
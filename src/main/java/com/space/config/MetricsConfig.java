@@ -0,0 +1,42 @@
+package com.space.config;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.jmx.JmxConfig;
+import io.micrometer.jmx.JmxMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Every meter goes to JMX and to the Prometheus registry scraped at GET /metrics
+@Configuration
+public class MetricsConfig {
+
+    @Bean(destroyMethod = "close")
+    public JmxMeterRegistry jmxMeterRegistry() {
+        return new JmxMeterRegistry(JmxConfig.DEFAULT, Clock.SYSTEM);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PrometheusMeterRegistry prometheusMeterRegistry() {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public MeterRegistry meterRegistry() {
+        CompositeMeterRegistry registry = new CompositeMeterRegistry();
+        registry.add(jmxMeterRegistry());
+        registry.add(prometheusMeterRegistry());
+        return registry;
+    }
+
+    // Mapped in MyWebAppInit through a DelegatingFilterProxy
+    @Bean
+    public RequestMetricsFilter requestMetricsFilter() {
+        return new RequestMetricsFilter(meterRegistry());
+    }
+}
@@ -0,0 +1,14 @@
+package com.space.config;
+
+import org.hibernate.dialect.MySQL5Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+public class MySQLFullTextDialect extends MySQL5Dialect {
+
+    public MySQLFullTextDialect() {
+        super();
+        registerFunction("fulltext_match",
+                new SQLFunctionTemplate(StandardBasicTypes.DOUBLE, "match(?1) against (?2 in boolean mode)"));
+    }
+}
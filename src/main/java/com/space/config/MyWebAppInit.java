@@ -1,7 +1,10 @@
 package com.space.config;
 
+import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
+import javax.servlet.Filter;
+
 public class MyWebAppInit extends AbstractAnnotationConfigDispatcherServletInitializer {
 
     @Override
@@ -18,4 +21,10 @@ public class MyWebAppInit extends AbstractAnnotationConfigDispatcherServletIniti
     protected String[] getServletMappings() {
         return new String[]{"/"};
     }
+
+    // requestMetricsFilter is a bean of the root context (MetricsConfig)
+    @Override
+    protected Filter[] getServletFilters() {
+        return new Filter[]{new DelegatingFilterProxy("requestMetricsFilter"), new ReadYourWritesFilter()};
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.space.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// SQL statements Hibernate prepared on this thread during one /rest request (see SqlStatementInspector).
+// Only counts per distinct statement are kept, so a request that issues many statements stays cheap.
+public class QueryContext {
+    private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+    // select ... from ship ship0_ where ship0_.id=?
+    private static final Pattern SELECT_BY_ID =
+            Pattern.compile("^select .* from (\\w+) (\\w+) where \\2\\.id=\\?$", Pattern.CASE_INSENSITIVE);
+    // update ship set ... where id=? / delete from ship where id=?
+    private static final Pattern WRITE_BY_ID =
+            Pattern.compile("^(?:update (\\w+) set .*|delete from (\\w+)) where id=\\?$", Pattern.CASE_INSENSITIVE);
+
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final Set<String> selectedById = new HashSet<>();
+    private final Set<String> preRead = new HashSet<>();
+    private int statements;
+
+    public static QueryContext open() {
+        QueryContext context = new QueryContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static QueryContext current() {
+        return CURRENT.get();
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    void statement(@NotNull String sql) {
+        statements++;
+        counts.merge(sql, 1, Integer::sum);
+
+        Matcher select = SELECT_BY_ID.matcher(sql);
+        if (select.matches()) {
+            selectedById.add(select.group(1).toLowerCase());
+            return;
+        }
+        Matcher write = WRITE_BY_ID.matcher(sql);
+        if (write.matches()) {
+            String table = (write.group(1) != null ? write.group(1) : write.group(2)).toLowerCase();
+            if (selectedById.contains(table)) {
+                preRead.add(table);
+            }
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    // The statement run most often, when it ran at least threshold times: the N of an N+1
+    public String repeated(int threshold) {
+        String repeated = null;
+        int most = threshold - 1;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > most) {
+                repeated = entry.getKey();
+                most = entry.getValue();
+            }
+        }
+        return repeated;
+    }
+
+    // Tables whose row was loaded by id and then updated or deleted by id, where one statement would do
+    public Set<String> getPreRead() {
+        return preRead;
+    }
+}
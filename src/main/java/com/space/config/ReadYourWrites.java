@@ -0,0 +1,42 @@
+package com.space.config;
+
+import java.util.function.LongConsumer;
+
+// The client of the /rest request on this thread, for ReplicaRoutingDataSource: until primaryUntil
+// (wall-clock millis) its reads go to the primary, since it wrote something a replica may not have yet.
+// ReadYourWritesFilter carries the time between requests in a cookie, so one client's write leaves every
+// other client's reads on the replicas. Threads without a request, such as background jobs, have none.
+public class ReadYourWrites {
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+    private final LongConsumer onWrite;
+    private long primaryUntil;
+
+    private ReadYourWrites(long primaryUntil, LongConsumer onWrite) {
+        this.primaryUntil = primaryUntil;
+        this.onWrite = onWrite;
+    }
+
+    public static ReadYourWrites open(long primaryUntil, LongConsumer onWrite) {
+        ReadYourWrites client = new ReadYourWrites(primaryUntil, onWrite);
+        CURRENT.set(client);
+        return client;
+    }
+
+    public static ReadYourWrites current() {
+        return CURRENT.get();
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    public long getPrimaryUntil() {
+        return primaryUntil;
+    }
+
+    void wrote(long until) {
+        primaryUntil = until;
+        onWrite.accept(until);
+    }
+}
@@ -0,0 +1,58 @@
+package com.space.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// Opens the request's ReadYourWrites from the primaryUntil cookie, and sets the cookie again when a write
+// of the request commits. A response already on its way keeps the old cookie; its own reads still follow.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String COOKIE = "primaryUntil";
+
+    @Override
+    protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/rest/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain chain) throws ServletException, IOException {
+        ReadYourWrites.open(primaryUntil(request), until -> {
+            if (!response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, String.valueOf(until));
+                cookie.setPath(request.getContextPath() + "/rest");
+                cookie.setMaxAge((int) Math.max(1, (until - System.currentTimeMillis() + 999) / 1000));
+                cookie.setHttpOnly(true);
+                response.addCookie(cookie);
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.close();
+        }
+    }
+
+    // 0 without a cookie or with a malformed one
+    private static long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,142 @@
+package com.space.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions (@Transactional(readOnly = true), which covers the Spring Data finders)
+// to the replicas in round-robin order, everything else to the primary. Replicas failing the periodic
+// health check are skipped; with none left reads fall back to the primary.
+// After a read-write transaction commits, the reads of the client that made it stay on the primary for
+// readYourWritesMillis, so that the ship just created or updated is not read back from a replica that has
+// not caught up yet. Only that client is pinned (see ReadYourWrites); a write without one, such as the
+// rating job's, pins nobody. A primaryUntil further away than readYourWritesMillis did not come from here
+// and is ignored.
+// Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only known once the
+// transaction has begun, after JpaTransactionManager asked for its connection.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private volatile boolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final long readYourWritesMillis;
+    private final ScheduledExecutorService healthCheck;
+
+    public ReplicaRoutingDataSource(@NotNull DataSource primary, @NotNull List<DataSource> replicas,
+                                    long readYourWritesMillis, long healthCheckMillis) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas);
+        this.healthy = new boolean[replicas.size()];
+        this.readYourWritesMillis = readYourWritesMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        if (replicas.isEmpty()) {
+            healthCheck = null;
+            return;
+        }
+        checkReplicas();
+        healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, healthCheckMillis, healthCheckMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ReadYourWrites client = ReadYourWrites.current();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (client != null && TransactionSynchronizationManager.isActualTransactionActive() && !replicas.isEmpty()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        client.wrote(System.currentTimeMillis() + readYourWritesMillis);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (client != null) {
+            long left = client.getPrimaryUntil() - System.currentTimeMillis();
+            if (left > 0 && left <= readYourWritesMillis) {
+                return PRIMARY;
+            }
+        }
+        boolean[] up = healthy;
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = Math.floorMod(start + i, replicas.size());
+            if (up[replica]) {
+                return replica;
+            }
+        }
+        return PRIMARY;
+    }
+
+    void checkReplicas() {
+        boolean[] checked = new boolean[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean up;
+            try (Connection connection = replicas.get(i).getConnection()) {
+                up = connection.isValid(1);
+            } catch (SQLException e) {
+                up = false;
+            }
+            if (up != healthy[i]) {
+                if (up) {
+                    log.info("Replica {} is up, routing read-only transactions to it", i);
+                } else {
+                    log.warn("Replica {} failed its health check, skipping it", i);
+                }
+            }
+            checked[i] = up;
+        }
+        healthy = checked;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (healthCheck != null) {
+            healthCheck.shutdownNow();
+        }
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+        if (primary instanceof Closeable) {
+            ((Closeable) primary).close();
+        }
+    }
+}
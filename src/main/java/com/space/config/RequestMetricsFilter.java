@@ -0,0 +1,219 @@
+package com.space.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Latency, status and body sizes of every /rest request, tagged with the controller method that served it:
+// http.server.requests (timer with p50/p95/p99 and a histogram for Prometheus), http.server.request.size
+// and http.server.response.size (bytes actually read and written, also for chunked bodies).
+// The SQL Hibernate ran for the request goes to http.server.requests.statements, and N+1 patterns and
+// load-then-write pre-reads are logged and counted in hibernate.query.n_plus_one / hibernate.query.pre_read.
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+    // the same statement this many times in one request
+    private static final int N_PLUS_ONE_THRESHOLD = 5;
+
+    private final MeterRegistry registry;
+
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/rest/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain chain) throws ServletException, IOException {
+        CountingRequest countingRequest = new CountingRequest(request);
+        CountingResponse countingResponse = new CountingResponse(response);
+        QueryContext queries = QueryContext.open();
+        long start = registry.config().clock().monotonicTime();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            chain.doFilter(countingRequest, countingResponse);
+            status = response.getStatus();
+        } finally {
+            QueryContext.close();
+            long elapsed = registry.config().clock().monotonicTime() - start;
+            Tags tags = tags(request, status);
+
+            Timer.builder("http.server.requests")
+                    .tags(tags)
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("http.server.request.size")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry)
+                    .record(countingRequest.bytes);
+            DistributionSummary.builder("http.server.response.size")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry)
+                    .record(countingResponse.bytes);
+            recordQueries(request, tags, queries);
+        }
+    }
+
+    private void recordQueries(HttpServletRequest request, Tags tags, QueryContext queries) {
+        DistributionSummary.builder("http.server.requests.statements")
+                .tags(tags)
+                .register(registry)
+                .record(queries.getStatements());
+
+        String repeated = queries.repeated(N_PLUS_ONE_THRESHOLD);
+        if (repeated != null) {
+            log.warn("Possible N+1 in " + request.getMethod() + " " + request.getRequestURI() + ": "
+                    + queries.getStatements() + " statements, repeated: " + repeated);
+            registry.counter("hibernate.query.n_plus_one", tags).increment();
+        }
+        for (String table : queries.getPreRead()) {
+            log.warn("Redundant pre-read in " + request.getMethod() + " " + request.getRequestURI()
+                    + ": " + table + " row loaded by id, then written by id");
+            registry.counter("hibernate.query.pre_read", tags.and("table", table)).increment();
+        }
+    }
+
+    // uri is the matched pattern (/rest/ships/{id}), never the raw path, to keep the number of series bounded
+    private static Tags tags(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        String endpoint = handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethod().getName() : "none";
+        String uri = pattern != null ? pattern.toString() : status == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+
+        return Tags.of(
+                "method", request.getMethod(),
+                "uri", uri,
+                "endpoint", endpoint,
+                "status", String.valueOf(status),
+                "outcome", status >= 500 ? "SERVER_ERROR" : status >= 400 ? "CLIENT_ERROR" : "SUCCESS");
+    }
+
+    private static class CountingRequest extends HttpServletRequestWrapper {
+        private long bytes;
+        private ServletInputStream stream;
+
+        CountingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                ServletInputStream in = super.getInputStream();
+                stream = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        int b = in.read();
+                        if (b >= 0) {
+                            bytes++;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(@NotNull byte[] buffer, int offset, int length) throws IOException {
+                        int n = in.read(buffer, offset, length);
+                        if (n > 0) {
+                            bytes += n;
+                        }
+                        return n;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return in.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return in.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener listener) {
+                        in.setReadListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+
+    private static class CountingResponse extends HttpServletResponseWrapper {
+        private long bytes;
+        private ServletOutputStream stream;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream out = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(@NotNull byte[] buffer, int offset, int length) throws IOException {
+                        out.write(buffer, offset, length);
+                        bytes += length;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        out.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        out.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return out.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        out.setWriteListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
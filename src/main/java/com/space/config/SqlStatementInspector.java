@@ -0,0 +1,17 @@
+package com.space.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registered as hibernate.session_factory.statement_inspector; sees every statement Hibernate prepares,
+// not the JdbcTemplate batches of the bulk paths
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryContext context = QueryContext.current();
+        if (context != null) {
+            context.statement(sql);
+        }
+        return sql;
+    }
+}
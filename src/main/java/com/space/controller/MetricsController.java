@@ -0,0 +1,31 @@
+package com.space.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.jetbrains.annotations.Contract;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Controller
+public class MetricsController {
+
+    private final PrometheusMeterRegistry prometheusRegistry;
+
+    @Contract(pure = true)
+    @Autowired
+    public MetricsController(PrometheusMeterRegistry prometheusRegistry) {
+        this.prometheusRegistry = prometheusRegistry;
+    }
+
+    // Prometheus text exposition format, written directly: WebConfig registers only the Jackson converters
+    // (JSON, Smile, CBOR), none of which writes text/plain, and the registry streams to the writer anyway
+    @GetMapping("/metrics")
+    public void scrape(HttpServletResponse response) throws IOException {
+        response.setContentType(TextFormat.CONTENT_TYPE_004);
+        prometheusRegistry.scrape(response.getWriter());
+    }
+}
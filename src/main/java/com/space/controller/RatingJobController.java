@@ -0,0 +1,43 @@
+package com.space.controller;
+
+import com.space.service.RatingRecomputeJob;
+import org.jetbrains.annotations.Contract;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+@Controller
+@RequestMapping("/rest/admin/ratings")
+public class RatingJobController {
+
+    private final RatingRecomputeJob recomputeJob;
+
+    @Contract(pure = true)
+    @Autowired
+    public RatingJobController(RatingRecomputeJob recomputeJob) {
+        this.recomputeJob = recomputeJob;
+    }
+
+    // Starts a run, or resumes the interrupted one; 409 while a run is in progress
+    @PostMapping("/recompute")
+    @ResponseBody
+    public ResponseEntity<?> startRecompute(){
+        HttpStatus status = recomputeJob.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return new ResponseEntity<>(recomputeJob.status(), status);
+    }
+
+    @GetMapping("/recompute")
+    @ResponseBody
+    public ResponseEntity<?> getRecompute(){
+        return new ResponseEntity<>(recomputeJob.status(), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/recompute")
+    @ResponseBody
+    public ResponseEntity<?> stopRecompute(){
+        recomputeJob.stop();
+        return new ResponseEntity<>(recomputeJob.status(), HttpStatus.ACCEPTED);
+    }
+}
@@ -0,0 +1,46 @@
+package com.space.controller;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShipBulkResult {
+    private long created;
+    private List<Rejected> errors = new ArrayList<>();
+
+    public void created(long count) {
+        created += count;
+    }
+
+    public void rejected(int index, String field) {
+        errors.add(new Rejected(index, field));
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public List<Rejected> getErrors() {
+        return errors;
+    }
+
+    public static class Rejected {
+        private int index;
+        private String field;
+
+        @Contract(pure = true)
+        public Rejected(int index, String field) {
+            this.index = index;
+            this.field = field;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getField() {
+            return field;
+        }
+    }
+}
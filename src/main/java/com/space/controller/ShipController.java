@@ -1,30 +1,51 @@
 package com.space.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.space.model.Ship;
 import com.space.model.ShipType;
+import com.space.service.ShipCursor;
 import com.space.service.ShipService;
+import com.space.service.ShipStats;
 import org.jetbrains.annotations.Contract;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.Date;
-import java.util.GregorianCalendar;
-import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Controller
 @RequestMapping("/rest")
 public class ShipController {
 
+    // One entity-tag of an If-Match list; its value may itself contain commas
+    private static final Pattern ENTITY_TAG = Pattern.compile("(?:W/)?\"([^\"]*)\"");
+    private static final ObjectReader SHIP_READER = new ObjectMapper().readerFor(ShipRequest.class);
+
     private final ShipService shipService;
+    private final int bulkBatchSize;
 
     @Contract(pure = true)
     @Autowired
-    public ShipController(ShipService shipService) {
+    public ShipController(ShipService shipService,
+                          @Value("${bulk.batchSize:1000}") int bulkBatchSize) {
         this.shipService = shipService;
+        this.bulkBatchSize = bulkBatchSize;
     }
 
     @GetMapping("/ships")
@@ -45,17 +66,22 @@ public class ShipController {
             @RequestParam(value = "maxRating", required = false) Double maxRating,
             @RequestParam(value = "order", defaultValue = "ID") ShipOrder order ,
             @RequestParam(value = "pageNumber", defaultValue = "0") Integer pageNumber,
-            @RequestParam(value = "pageSize", defaultValue = "3") Integer pageSize
+            @RequestParam(value = "pageSize", defaultValue = "3") Integer pageSize,
+            ServletWebRequest webRequest
     ){
+        if(notModified(webRequest, shipService.tableVersion(), shipService.lastModified())) {
+            return null;
+        }
+
         Page<Ship> mainTable = shipService.getAll(id, name, planet, shipType, after, before, isUsed,
                 minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, pageNumber, pageSize);
         return new ResponseEntity<>(mainTable.getContent(), HttpStatus.OK);
     }
 
 
-    @GetMapping("/ships/count")
+    @GetMapping("/ships/page")
     @ResponseBody
-    public ResponseEntity<?> getCount(
+    public ResponseEntity<?> getPage(
             @RequestParam(value = "id", required = false) Long id,
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "planet", required = false) String planet,
@@ -68,248 +94,368 @@ public class ShipController {
             @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
             @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
             @RequestParam(value = "minRating", required = false) Double minRating,
-            @RequestParam(value = "maxRating", required = false) Double maxRating){
+            @RequestParam(value = "maxRating", required = false) Double maxRating,
+            @RequestParam(value = "order", defaultValue = "ID") ShipOrder order ,
+            @RequestParam(value = "pageNumber", defaultValue = "0") Integer pageNumber,
+            @RequestParam(value = "pageSize", defaultValue = "3") Integer pageSize,
+            @RequestParam(value = "total", required = false) Long total,
+            ServletWebRequest webRequest
+    ){
+        if(total != null && total < 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if(notModified(webRequest, shipService.tableVersion(), shipService.lastModified())) {
+            return null;
+        }
 
-        Integer count = shipService.getCount(id, name, planet, shipType, after, before, isUsed,
-                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
-        return new ResponseEntity<>(count, HttpStatus.OK);
+        Page<Ship> page = shipService.getPage(id, name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, pageNumber, pageSize, total);
+        return new ResponseEntity<>(new ShipPage(page), HttpStatus.OK);
     }
 
 
-    @PostMapping("/ships")
+    @GetMapping("/ships/seek")
     @ResponseBody
-    public ResponseEntity<?> createShip(@RequestBody Map<String, String> body){
-        if(body == null || body.isEmpty()) {
+    public ResponseEntity<?> getSlice(
+            @RequestParam(value = "id", required = false) Long id,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "planet", required = false) String planet,
+            @RequestParam(value = "shipType", required = false) ShipType shipType,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "isUsed", required = false) Boolean isUsed,
+            @RequestParam(value = "minSpeed", required = false) Double minSpeed,
+            @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
+            @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
+            @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
+            @RequestParam(value = "minRating", required = false) Double minRating,
+            @RequestParam(value = "maxRating", required = false) Double maxRating,
+            @RequestParam(value = "order", defaultValue = "ID") ShipOrder order ,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "3") Integer pageSize,
+            ServletWebRequest webRequest
+    ){
+        if(pageSize < 1) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
-        String name = body.get("name");
-        if(name == null || name.isEmpty() || name.length() > 50) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        ShipCursor from = null;
+        if(cursor != null && !cursor.isEmpty()) {
+            try {
+                from = ShipCursor.decode(order, cursor);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
         }
 
-        String planet = body.get("planet");
-        if(planet == null || planet.isEmpty() || planet.length() > 50) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        if(notModified(webRequest, shipService.tableVersion(), shipService.lastModified())) {
+            return null;
         }
 
-        String shipTypeText = body.get("shipType");
-        if(shipTypeText == null || shipTypeText.isEmpty()) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        }
-        ShipType shipType = ShipType.valueOf(shipTypeText);
+        Slice<Ship> slice = shipService.getSlice(id, name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, from, pageSize);
 
-        String prodDateLongText = body.get("prodDate");
-        if(prodDateLongText == null || prodDateLongText.isEmpty()) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        String next = null;
+        if(slice.hasNext()) {
+            List<Ship> content = slice.getContent();
+            next = ShipCursor.after(order, content.get(content.size() - 1)).encode();
         }
+        return new ResponseEntity<>(new ShipSlice(slice.getContent(), next), HttpStatus.OK);
+    }
 
-        Long prodDateLong = 0L;
-        try {
-            prodDateLong = Long.parseLong(prodDateLongText);
-        } catch (NumberFormatException e) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        }
 
-        Long date2800Long = new GregorianCalendar(2800, 0, 1).getTimeInMillis();
-        Long date3200Long = new GregorianCalendar(3020, 0, 1).getTimeInMillis();
-        if(prodDateLong < 0 ||
-                prodDateLong < date2800Long ||
-                prodDateLong >= date3200Long) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    @GetMapping("/ships/export")
+    public void export(
+            @RequestParam(value = "id", required = false) Long id,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "planet", required = false) String planet,
+            @RequestParam(value = "shipType", required = false) ShipType shipType,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "isUsed", required = false) Boolean isUsed,
+            @RequestParam(value = "minSpeed", required = false) Double minSpeed,
+            @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
+            @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
+            @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
+            @RequestParam(value = "minRating", required = false) Double minRating,
+            @RequestParam(value = "maxRating", required = false) Double maxRating,
+            @RequestParam(value = "order", defaultValue = "ID") ShipOrder order,
+            @RequestParam(value = "format", defaultValue = "NDJSON") ShipExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"ships." + format.getExtension() + "\"");
+
+        try (ShipExportWriter writer = format.writer(response.getOutputStream())) {
+            shipService.exportShips(id, name, planet, shipType, after, before, isUsed,
+                    minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, writer);
         }
+    }
 
-        String isUsedText = body.get("isUsed");
-        Boolean isUsed = false;
-        if(isUsedText != null && !isUsedText.isEmpty()) {
-            isUsed = Boolean.parseBoolean(isUsedText);
-        }
 
-        String speedText = body.get("speed");
-        if(speedText == null || speedText.isEmpty()) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        }
+    @GetMapping("/ships/count")
+    @ResponseBody
+    public ResponseEntity<?> getCount(
+            @RequestParam(value = "id", required = false) Long id,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "planet", required = false) String planet,
+            @RequestParam(value = "shipType", required = false) ShipType shipType,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "isUsed", required = false) Boolean isUsed,
+            @RequestParam(value = "minSpeed", required = false) Double minSpeed,
+            @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
+            @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
+            @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
+            @RequestParam(value = "minRating", required = false) Double minRating,
+            @RequestParam(value = "maxRating", required = false) Double maxRating,
+            ServletWebRequest webRequest){
 
-        Double speed = 0D;
-        try {
-            speed = Double.parseDouble(speedText);
-        } catch (NumberFormatException e) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        if(notModified(webRequest, shipService.tableVersion(), shipService.lastModified())) {
+            return null;
         }
 
-        speed = Math.round(speed * 100)/100.0;
-        if(speed < 0.01d || speed > 0.99d) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        }
+        Long count = shipService.getCount(id, name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        return new ResponseEntity<>(count, HttpStatus.OK);
+    }
 
-        String crewSizeText = body.get("crewSize");
-        if(crewSizeText == null || crewSizeText.isEmpty()) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+
+    // Counts and min/max/avg of speed, rating and crew size, in total, per ship type and per planet
+    @GetMapping("/ships/stats")
+    @ResponseBody
+    public ResponseEntity<?> getStats(
+            @RequestParam(value = "id", required = false) Long id,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "planet", required = false) String planet,
+            @RequestParam(value = "shipType", required = false) ShipType shipType,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "isUsed", required = false) Boolean isUsed,
+            @RequestParam(value = "minSpeed", required = false) Double minSpeed,
+            @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
+            @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
+            @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
+            @RequestParam(value = "minRating", required = false) Double minRating,
+            @RequestParam(value = "maxRating", required = false) Double maxRating,
+            ServletWebRequest webRequest){
+
+        if(notModified(webRequest, shipService.tableVersion(), shipService.lastModified())) {
+            return null;
         }
 
-        Integer crewSize = 0;
-        try {
-            crewSize = Integer.parseInt(crewSizeText);
-        } catch (NumberFormatException e) {
+        ShipStats stats = shipService.getStats(id, name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+
+    @PostMapping("/ships")
+    @ResponseBody
+    public ResponseEntity<?> createShip(@RequestBody ShipRequest body){
+        if(body == null || body.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
-        if(crewSize < 1 || crewSize > 9999) {
+        Ship ship = new Ship();
+        if(ShipValidator.readNewShip(body, ship) != null) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
-        Ship ship = shipService.createShip(name, planet, shipType, prodDateLong, isUsed, speed, crewSize);
+        ship = shipService.createShip(ship.getName(), ship.getPlanet(), ship.getShipType(),
+                ship.getProdDate().getTime(), ship.getUsed(), ship.getSpeed(), ship.getCrewSize());
 
         return new ResponseEntity<>(ship, HttpStatus.OK);
     }
 
 
+    // Accepts a JSON array or newline-delimited JSON objects; valid ships are inserted in JDBC batches, each
+    // committed on its own, and invalid ones are listed in errors by their index in the stream. A stream that
+    // stops parsing ends the errors with {"index": <first record not read>, "field": "body"}; the ships before
+    // it stay created, so the answer is 400 only when none were, otherwise 200 and the client resends the
+    // records from that index on
+    @PostMapping("/ships/bulk")
+    @ResponseBody
+    public ResponseEntity<?> createShips(HttpServletRequest request) throws IOException {
+        ShipBulkResult result = new ShipBulkResult();
+        List<Ship> batch = new ArrayList<>(bulkBatchSize);
+        int index = 0;
+
+        try (MappingIterator<ShipRequest> records = SHIP_READER.readValues(request.getInputStream())) {
+            while (records.hasNextValue()) {
+                ShipRequest record = records.nextValue();
+
+                Ship ship = new Ship();
+                String invalidField = record == null || record.isEmpty()
+                        ? "body" : ShipValidator.readNewShip(record, ship);
+
+                if(invalidField != null) {
+                    result.rejected(index, invalidField);
+                } else {
+                    batch.add(ship);
+                    if(batch.size() == bulkBatchSize) {
+                        result.created(shipService.createShips(batch));
+                        batch.clear();
+                    }
+                }
+                index++;
+            }
+        } catch (JsonProcessingException e) {
+            result.created(shipService.createShips(batch));
+            result.rejected(index, "body");
+            return new ResponseEntity<>(result, result.getCreated() == 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK);
+        }
+
+        result.created(shipService.createShips(batch));
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+
     @GetMapping("/ships/{id}")
     @ResponseBody
-    public ResponseEntity<?> getShip(@PathVariable Long id){
+    public ResponseEntity<?> getShip(@PathVariable Long id, ServletWebRequest webRequest){
         if(id <= 0) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-
+        // from the ship cache when it holds the ship, so an unchanged poll still reads nothing then
         Ship ship = shipService.getShip(id);
         if(ship == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        } else {
-            return new ResponseEntity<>(ship, HttpStatus.OK);
         }
+        // the row version is the validator; the table's Last-Modified says nothing about this row
+        if(notModified(webRequest, String.valueOf(ship.getVersion()), -1)) {
+            return null;
+        }
+        return new ResponseEntity<>(ship, HttpStatus.OK);
     }
 
 
+    // If-Match with the ship's ETag, or a version field in the body, makes the update conditional:
+    // 412 (If-Match) or 409 (body) when the ship has been changed since that version
     @PostMapping("/ships/{id}")
     @ResponseBody
-    public ResponseEntity<?> updateShip(@PathVariable Long id, @RequestBody Map<String, String> body){
+    public ResponseEntity<?> updateShip(@PathVariable Long id, @RequestBody ShipRequest body,
+                                        ServletWebRequest webRequest){
         if(id <= 0) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
-        Ship ship = shipService.getShip(id);
+        Ship ship = new Ship();
+        if(body != null && ShipValidator.readChanges(body, ship) != null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        if(ifMatchAnyFails(id, webRequest)) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+        Long ifMatch = ifMatchVersion(id, webRequest);
+        if(ifMatch != null) {
+            ship.setVersion(ifMatch);
+        }
+
+        try {
+            ship = shipService.updateShip(id, ship);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+        }
         if(ship == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if(ship.getVersion() == null) {
+            return new ResponseEntity<>(ship, HttpStatus.OK);
+        }
+        return ResponseEntity.ok().eTag(etag(webRequest, String.valueOf(ship.getVersion()))).body(ship);
+    }
 
-        if(body != null && !body.isEmpty()) {
 
-            String name = body.get("name");
-            if (name != null) {
-                if (name.isEmpty() || name.length() > 50) {
-                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                } else {
-                    ship.setName(name);
-                }
-            }
+    @DeleteMapping("/ships/{id}")
+    @ResponseBody
+    public ResponseEntity<?> deleteShip(@PathVariable Long id, ServletWebRequest webRequest) {
+        if (id <= 0)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 
-            String planet = body.get("planet");
-            if (planet != null) {
-                if (planet.isEmpty() || planet.length() > 50) {
-                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                } else {
-                    ship.setPlanet(planet);
-                }
-            }
+        if(ifMatchAnyFails(id, webRequest)) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
 
-            String shipTypeText = body.get("shipType");
-            if (shipTypeText != null) {
-                if (shipTypeText.isEmpty()) {
-                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                } else {
-                    ShipType shipType = ShipType.valueOf(shipTypeText);
-                    ship.setShipType(shipType);
-                }
-            }
+        boolean deleted;
+        try {
+            deleted = shipService.deleteShip(id, ifMatchVersion(id, webRequest));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
 
-            String prodDateLongText = body.get("prodDate");
-            if (prodDateLongText != null) {
-                if (prodDateLongText.isEmpty()) {
-                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                } else {
-                    Long prodDateLong = 0L;
-                    try {
-                        prodDateLong = Long.parseLong(prodDateLongText);
-                    } catch (NumberFormatException e) {
-                        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                    }
+        if (!deleted) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } else {
+            return new ResponseEntity<>(HttpStatus.OK);
+        }
+    }
 
-                    Long date2800Long = new GregorianCalendar(2800, 0, 1).getTimeInMillis();
-                    Long date3200Long = new GregorianCalendar(3020, 0, 1).getTimeInMillis();
-                    if (prodDateLong < 0 ||
-                            prodDateLong < date2800Long ||
-                            prodDateLong >= date3200Long) {
-                        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                    } else {
-                        ship.setProdDate(new Date(prodDateLong));
-                    }
-                }
-            }
 
-            String isUsedText = body.get("isUsed");
-            if (isUsedText != null && !isUsedText.isEmpty()) {
-                Boolean isUsed = Boolean.parseBoolean(isUsedText);
-                ship.setUsed(isUsed);
-            }
+    // Sets ETag and Last-Modified (unless -1) and answers 304 when the client's copy is current; lists check
+    // it before the service so an unchanged poll reads nothing. Last-Modified has one second resolution, so
+    // it is left out while the second of the last write lasts: a later write in that second would not change it
+    private boolean notModified(ServletWebRequest webRequest, String version, long lastModified) {
+        webRequest.getResponse().setHeader("Vary", "Accept");
 
-            String speedText = body.get("speed");
-            if (speedText != null) {
-                if (speedText.isEmpty()) {
-                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                } else {
-                    Double speed = 0D;
-                    try {
-                        speed = Double.parseDouble(speedText);
-                    } catch (NumberFormatException e) {
-                        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                    }
+        String etag = etag(webRequest, version);
 
-                    speed = Math.round(speed * 100)/100.0;
-                    if (speed < 0.01d || speed > 0.99d) {
-                        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                    } else {
-                        ship.setSpeed(speed);
-                    }
-                }
-            }
+        if(lastModified / 1000 == System.currentTimeMillis() / 1000) {
+            lastModified = -1;
+        }
+        return webRequest.checkNotModified(etag, lastModified);
+    }
 
-            String crewSizeText = body.get("crewSize");
-            if (crewSizeText != null) {
-                if (crewSizeText.isEmpty()) {
-                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                } else {
-                    Integer crewSize = 0;
-                    try {
-                        crewSize = Integer.parseInt(crewSizeText);
-                    } catch (NumberFormatException e) {
-                        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                    }
 
-                    if (crewSize < 1 || crewSize > 9999) {
-                        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-                    } else {
-                        ship.setCrewSize(crewSize);
-                    }
-                }
-            }
-            ship = shipService.updateShip(ship);
-        }
-        return new ResponseEntity<>(ship, HttpStatus.OK);
+    // The ETag covers the Accept header since JSON, Smile and CBOR bodies differ
+    private static String etag(ServletWebRequest webRequest, String version) {
+        String accept = webRequest.getHeader("Accept");
+        return "\"" + version + "-" + Integer.toHexString(accept == null ? 0 : accept.hashCode()) + "\"";
     }
 
+    // If-Match: * holds only while the ship exists (RFC 7232, section 3.1)
+    private boolean ifMatchAnyFails(Long id, ServletWebRequest webRequest) {
+        String ifMatch = webRequest.getHeader("If-Match");
+        return ifMatch != null && ifMatch.trim().equals("*") && shipService.currentVersion(id) == null;
+    }
 
-    @DeleteMapping("/ships/{id}")
-    @ResponseBody
-    public ResponseEntity<?> deleteShip(@PathVariable Long id) {
-        if (id <= 0)
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    // The ship version If-Match makes the write conditional on: null without the header or with *, -1 (never
+    // a version) when no tag is a ship ETag. Of several tags, the one naming the current version is taken;
+    // the write still checks that version, so a change in between is caught
+    private Long ifMatchVersion(Long id, ServletWebRequest webRequest) {
+        String ifMatch = webRequest.getHeader("If-Match");
+        if(ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
 
-        Ship ship = shipService.getShip(id);
-        if (ship == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        } else {
-            shipService.deleteShip(ship);
-            return new ResponseEntity<>(HttpStatus.OK);
+        List<Long> versions = new ArrayList<>();
+        Matcher tag = ENTITY_TAG.matcher(ifMatch);
+        while(tag.find()) {
+            Long version = tagVersion(tag.group(1));
+            if(version != null) {
+                versions.add(version);
+            }
+        }
+        if(versions.size() <= 1) {
+            return versions.isEmpty() ? -1L : versions.get(0);
+        }
+
+        Long current = shipService.currentVersion(id);
+        return current != null && versions.contains(current) ? current : -1L;
+    }
+
+    // "<version>-<hash of Accept>", see etag()
+    private static Long tagVersion(String tag) {
+        int dash = tag.indexOf('-');
+        if(dash < 0) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(0, dash));
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+}
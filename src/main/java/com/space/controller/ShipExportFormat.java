@@ -0,0 +1,35 @@
+package com.space.controller;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum ShipExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"), // default
+    CSV("text/csv", "csv");
+
+    private String contentType;
+    private String extension;
+
+    @Contract(pure = true)
+    ShipExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    @Contract(pure = true)
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Contract(pure = true)
+    public String getExtension() {
+        return extension;
+    }
+
+    public ShipExportWriter writer(@NotNull OutputStream out) throws IOException {
+        return this == CSV ? new ShipExportWriter.Csv(out) : new ShipExportWriter.Ndjson(out);
+    }
+}
@@ -0,0 +1,99 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.space.model.Ship;
+import com.space.service.ShipSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Writes ships one at a time to a buffered stream; a slow client blocks the export in write()
+public abstract class ShipExportWriter implements ShipSink, Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    static class Ndjson extends ShipExportWriter {
+        private final JsonGenerator generator;
+
+        Ndjson(@NotNull OutputStream out) throws IOException {
+            generator = JSON_FACTORY.createGenerator(out);
+            // lines are separated by accept(); the default separator would indent every line after the first
+            generator.setRootValueSeparator(null);
+        }
+
+        // same JSON as GET /rest/ships, one ship per line
+        @Override
+        public void accept(@NotNull Ship ship) throws IOException {
+            ShipSerializer.write(ship, generator);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    static class Csv extends ShipExportWriter {
+        private final Writer writer;
+
+        Csv(@NotNull OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating\r\n");
+        }
+
+        @Override
+        public void accept(@NotNull Ship ship) throws IOException {
+            writer.write(String.valueOf(ship.getId()));
+            writer.write(',');
+            writeText(ship.getName());
+            writer.write(',');
+            writeText(ship.getPlanet());
+            writer.write(',');
+            writeValue(ship.getShipType());
+            writer.write(',');
+            writeValue(ship.getProdDate() == null ? null : ship.getProdDate().getTime());
+            writer.write(',');
+            writeValue(ship.getUsed());
+            writer.write(',');
+            writeValue(ship.getSpeed());
+            writer.write(',');
+            writeValue(ship.getCrewSize());
+            writer.write(',');
+            writeValue(ship.getRating());
+            writer.write("\r\n");
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+
+        // RFC 4180 quoting, only when the text needs it
+        private void writeText(String text) throws IOException {
+            if (text == null) {
+                return;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
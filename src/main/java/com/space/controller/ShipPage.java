@@ -0,0 +1,39 @@
+package com.space.controller;
+
+import com.space.model.Ship;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public class ShipPage {
+    private List<Ship> content;
+    private long total;
+    private int pages;
+    private boolean hasNext;
+
+    @Contract(pure = true)
+    public ShipPage(@NotNull Page<Ship> page) {
+        this.content = page.getContent();
+        this.total = page.getTotalElements();
+        this.pages = page.getTotalPages();
+        this.hasNext = page.hasNext();
+    }
+
+    public List<Ship> getContent() {
+        return content;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
@@ -0,0 +1,215 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.space.model.ShipType;
+
+import java.io.IOException;
+
+// Body of POST /rest/ships (create), POST /rest/ships/{id} (patch) and each record of POST /rest/ships/bulk.
+// Read token by token: numbers and booleans are taken straight from the parser, and a string value is
+// parsed the same way the Map<String, String> bodies were. A value that cannot be converted leaves the
+// field null and marks it malformed for ShipValidator; a nested object or array fails the whole body.
+@JsonDeserialize(using = ShipRequest.Deserializer.class)
+public class ShipRequest {
+    static final int SHIP_TYPE = 1;
+    static final int PROD_DATE = 1 << 1;
+    static final int SPEED = 1 << 2;
+    static final int CREW_SIZE = 1 << 3;
+    static final int VERSION = 1 << 4;
+
+    private String name;
+    private String planet;
+    private ShipType shipType;
+    private Long prodDate;
+    private Boolean isUsed;
+    private Double speed;
+    private Integer crewSize;
+    private Long version;
+
+    private int fields;
+    private int malformed;
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPlanet() {
+        return planet;
+    }
+
+    public ShipType getShipType() {
+        return shipType;
+    }
+
+    public Long getProdDate() {
+        return prodDate;
+    }
+
+    public Boolean getUsed() {
+        return isUsed;
+    }
+
+    public Double getSpeed() {
+        return speed;
+    }
+
+    public Integer getCrewSize() {
+        return crewSize;
+    }
+
+    // Patch only: the version the ship must still have
+    public Long getVersion() {
+        return version;
+    }
+
+    // No fields at all, as in {}
+    public boolean isEmpty() {
+        return fields == 0;
+    }
+
+    boolean isMalformed(int field) {
+        return (malformed & field) != 0;
+    }
+
+    public static class Deserializer extends StdDeserializer<ShipRequest> {
+
+        public Deserializer() {
+            super(ShipRequest.class);
+        }
+
+        @Override
+        public ShipRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            }
+
+            ShipRequest request = new ShipRequest();
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    return (ShipRequest) context.handleUnexpectedToken(ShipRequest.class, parser);
+                }
+                request.fields++;
+                request.read(field, value, parser);
+            }
+
+            if (token != JsonToken.END_OBJECT) {
+                return (ShipRequest) context.handleUnexpectedToken(ShipRequest.class, parser);
+            }
+            return request;
+        }
+    }
+
+    private void read(String field, JsonToken value, JsonParser parser) throws IOException {
+        boolean isNull = value == JsonToken.VALUE_NULL;
+        switch (field) {
+            case "name":
+                name = isNull ? null : parser.getText();
+                break;
+            case "planet":
+                planet = isNull ? null : parser.getText();
+                break;
+            case "shipType":
+                shipType = null;
+                accept(SHIP_TYPE, isNull || readShipType(parser.getText()));
+                break;
+            case "prodDate":
+                prodDate = isNull ? null : readLong(value, parser);
+                accept(PROD_DATE, isNull || prodDate != null);
+                break;
+            case "isUsed":
+                isUsed = isNull ? null : readBoolean(value, parser);
+                break;
+            case "speed":
+                speed = isNull ? null : readDouble(value, parser);
+                accept(SPEED, isNull || speed != null);
+                break;
+            case "crewSize":
+                crewSize = isNull ? null : readInt(value, parser);
+                accept(CREW_SIZE, isNull || crewSize != null);
+                break;
+            case "version":
+                version = isNull ? null : readLong(value, parser);
+                accept(VERSION, isNull || version != null);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void accept(int field, boolean valid) {
+        if (valid) {
+            malformed &= ~field;
+        } else {
+            malformed |= field;
+        }
+    }
+
+    private boolean readShipType(String text) {
+        try {
+            shipType = ShipType.valueOf(text);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Long readLong(JsonToken value, JsonParser parser) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            JsonParser.NumberType type = parser.getNumberType();
+            return type == JsonParser.NumberType.INT || type == JsonParser.NumberType.LONG
+                    ? parser.getLongValue() : null;
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            return null;
+        }
+        try {
+            return Long.parseLong(parser.getText());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer readInt(JsonToken value, JsonParser parser) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getNumberType() == JsonParser.NumberType.INT ? parser.getIntValue() : null;
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(parser.getText());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double readDouble(JsonToken value, JsonParser parser) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(parser.getText());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // "" counts as absent, as it did for the Map bodies
+    private static Boolean readBoolean(JsonToken value, JsonParser parser) throws IOException {
+        if (value == JsonToken.VALUE_TRUE || value == JsonToken.VALUE_FALSE) {
+            return value == JsonToken.VALUE_TRUE;
+        }
+        String text = parser.getText();
+        return text.isEmpty() ? null : Boolean.parseBoolean(text);
+    }
+}
@@ -0,0 +1,149 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+// Writes a ship field by field with pre-encoded names and ship type values instead of the reflective
+// bean serializer, and formats speed and rating without Double.toString. Same JSON as before: fields in
+// declaration order, nulls included, prodDate as epoch milliseconds.
+// Registered in WebConfig and shared with the NDJSON export.
+public class ShipSerializer extends StdSerializer<Ship> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString PLANET = new SerializedString("planet");
+    private static final SerializedString SHIP_TYPE = new SerializedString("shipType");
+    private static final SerializedString PROD_DATE = new SerializedString("prodDate");
+    private static final SerializedString IS_USED = new SerializedString("isUsed");
+    private static final SerializedString SPEED = new SerializedString("speed");
+    private static final SerializedString CREW_SIZE = new SerializedString("crewSize");
+    private static final SerializedString RATING = new SerializedString("rating");
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[16]);
+
+    private static final SerializedString[] SHIP_TYPES = new SerializedString[ShipType.values().length];
+
+    static {
+        for (ShipType shipType : ShipType.values()) {
+            SHIP_TYPES[shipType.ordinal()] = new SerializedString(shipType.name());
+        }
+    }
+
+    public ShipSerializer() {
+        super(Ship.class);
+    }
+
+    @Override
+    public void serialize(Ship ship, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        write(ship, generator);
+    }
+
+    static void write(@NotNull Ship ship, @NotNull JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+
+        generator.writeFieldName(ID);
+        if (ship.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(ship.getId());
+        }
+
+        generator.writeFieldName(NAME);
+        generator.writeString(ship.getName());
+
+        generator.writeFieldName(PLANET);
+        generator.writeString(ship.getPlanet());
+
+        generator.writeFieldName(SHIP_TYPE);
+        if (ship.getShipType() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(SHIP_TYPES[ship.getShipType().ordinal()]);
+        }
+
+        generator.writeFieldName(PROD_DATE);
+        if (ship.getProdDate() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(ship.getProdDate().getTime());
+        }
+
+        generator.writeFieldName(IS_USED);
+        if (ship.getUsed() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(ship.getUsed());
+        }
+
+        generator.writeFieldName(SPEED);
+        writeDouble(ship.getSpeed(), generator);
+
+        generator.writeFieldName(CREW_SIZE);
+        if (ship.getCrewSize() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(ship.getCrewSize());
+        }
+
+        generator.writeFieldName(RATING);
+        writeDouble(ship.getRating(), generator);
+
+        generator.writeEndObject();
+    }
+
+    private static void writeDouble(Double value, JsonGenerator generator) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        // binary formats write the double's 8 bytes, there is no text to save
+        if (generator.canWriteBinaryNatively()) {
+            generator.writeNumber(value);
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int length = formatHundredths(value, buffer);
+        if (length < 0) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeRawValue(buffer, 0, length);
+        }
+    }
+
+    // Speed and rating are stored with two decimals. For such values in [0.01, 1e7) this writes the same
+    // text as Double.toString (which JsonGenerator.writeNumber(double) uses) without its garbage;
+    // returns -1 for any other value
+    static int formatHundredths(double value, char[] buffer) {
+        if (!(value >= 0.01 && value < 1e7)) {
+            return -1;
+        }
+        long hundredths = Math.round(value * 100);
+        if (hundredths / 100.0 != value) {
+            return -1;
+        }
+
+        long units = hundredths / 100;
+        int fraction = (int) (hundredths % 100);
+        int length = 0;
+        long divisor = 1;
+        while (divisor * 10 <= units) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer[length++] = (char) ('0' + units / divisor % 10);
+        }
+        buffer[length++] = '.';
+        buffer[length++] = (char) ('0' + fraction / 10);
+        if (fraction % 10 != 0) {
+            buffer[length++] = (char) ('0' + fraction % 10);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,25 @@
+package com.space.controller;
+
+import com.space.model.Ship;
+import org.jetbrains.annotations.Contract;
+
+import java.util.List;
+
+public class ShipSlice {
+    private List<Ship> content;
+    private String next;
+
+    @Contract(pure = true)
+    public ShipSlice(List<Ship> content, String next) {
+        this.content = content;
+        this.next = next;
+    }
+
+    public List<Ship> getContent() {
+        return content;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
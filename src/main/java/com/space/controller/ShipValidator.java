@@ -0,0 +1,143 @@
+package com.space.controller;
+
+import com.space.model.Ship;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+// Field rules shared by create, patch and bulk create. Each method returns the first invalid field
+// (in body order: name, planet, shipType, prodDate, speed, crewSize, version) or null when the request is valid.
+final class ShipValidator {
+    static final int MAX_TEXT_LENGTH = 50;
+    // [2800-01-01, 3020-01-01) in the default time zone
+    static final long MIN_PROD_DATE = new GregorianCalendar(2800, 0, 1).getTimeInMillis();
+    static final long MAX_PROD_DATE = new GregorianCalendar(3020, 0, 1).getTimeInMillis();
+    static final double MIN_SPEED = 0.01d;
+    static final double MAX_SPEED = 0.99d;
+    static final int MIN_CREW_SIZE = 1;
+    static final int MAX_CREW_SIZE = 9999;
+
+    private ShipValidator() {
+    }
+
+    // Every field but isUsed (false when absent) is required
+    static String readNewShip(@NotNull ShipRequest request, @NotNull Ship ship) {
+        if (!validText(request.getName())) {
+            return "name";
+        }
+        ship.setName(request.getName());
+
+        if (!validText(request.getPlanet())) {
+            return "planet";
+        }
+        ship.setPlanet(request.getPlanet());
+
+        if (request.getShipType() == null) {
+            return "shipType";
+        }
+        ship.setShipType(request.getShipType());
+
+        if (request.getProdDate() == null || !validProdDate(request.getProdDate())) {
+            return "prodDate";
+        }
+        ship.setProdDate(new Date(request.getProdDate()));
+
+        ship.setUsed(request.getUsed() != null ? request.getUsed() : Boolean.FALSE);
+
+        if (request.getSpeed() == null || !validSpeed(roundSpeed(request.getSpeed()))) {
+            return "speed";
+        }
+        ship.setSpeed(roundSpeed(request.getSpeed()));
+
+        if (request.getCrewSize() == null || !validCrewSize(request.getCrewSize())) {
+            return "crewSize";
+        }
+        ship.setCrewSize(request.getCrewSize());
+
+        return null;
+    }
+
+    // Only the fields present are checked and copied; a field sent as null is left unchanged
+    static String readChanges(@NotNull ShipRequest request, @NotNull Ship ship) {
+        if (request.getName() != null) {
+            if (!validText(request.getName())) {
+                return "name";
+            }
+            ship.setName(request.getName());
+        }
+
+        if (request.getPlanet() != null) {
+            if (!validText(request.getPlanet())) {
+                return "planet";
+            }
+            ship.setPlanet(request.getPlanet());
+        }
+
+        if (request.isMalformed(ShipRequest.SHIP_TYPE)) {
+            return "shipType";
+        }
+        ship.setShipType(request.getShipType());
+
+        if (request.isMalformed(ShipRequest.PROD_DATE)) {
+            return "prodDate";
+        }
+        if (request.getProdDate() != null) {
+            if (!validProdDate(request.getProdDate())) {
+                return "prodDate";
+            }
+            ship.setProdDate(new Date(request.getProdDate()));
+        }
+
+        ship.setUsed(request.getUsed());
+
+        if (request.isMalformed(ShipRequest.SPEED)) {
+            return "speed";
+        }
+        if (request.getSpeed() != null) {
+            double speed = roundSpeed(request.getSpeed());
+            if (!validSpeed(speed)) {
+                return "speed";
+            }
+            ship.setSpeed(speed);
+        }
+
+        if (request.isMalformed(ShipRequest.CREW_SIZE)) {
+            return "crewSize";
+        }
+        if (request.getCrewSize() != null) {
+            if (!validCrewSize(request.getCrewSize())) {
+                return "crewSize";
+            }
+            ship.setCrewSize(request.getCrewSize());
+        }
+
+        if (request.isMalformed(ShipRequest.VERSION)) {
+            return "version";
+        }
+        ship.setVersion(request.getVersion());
+
+        return null;
+    }
+
+    private static boolean validText(String text) {
+        return text != null && !text.isEmpty() && text.length() <= MAX_TEXT_LENGTH;
+    }
+
+    private static boolean validProdDate(long prodDate) {
+        return prodDate >= MIN_PROD_DATE && prodDate < MAX_PROD_DATE;
+    }
+
+    // Speed is stored with two decimals; the range applies to the rounded value
+    private static double roundSpeed(double speed) {
+        return Math.round(speed * 100) / 100.0;
+    }
+
+    private static boolean validSpeed(double speed) {
+        return speed >= MIN_SPEED && speed <= MAX_SPEED;
+    }
+
+    private static boolean validCrewSize(int crewSize) {
+        return crewSize >= MIN_CREW_SIZE && crewSize <= MAX_CREW_SIZE;
+    }
+}
@@ -0,0 +1,60 @@
+package com.space.model;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "rating_recompute")
+public class RatingCheckpoint {
+    public static final Integer ID = 1;
+
+    @Id
+    private Integer id;
+
+    private Long lastId;
+    private Long processed;
+    private Boolean finished;
+
+    @Contract(pure = true)
+    public RatingCheckpoint() {
+    }
+
+    @Contract(pure = true)
+    public RatingCheckpoint(Long lastId, Long processed, Boolean finished) {
+        this.id = ID;
+        this.lastId = lastId;
+        this.processed = processed;
+        this.finished = finished;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(Long lastId) {
+        this.lastId = lastId;
+    }
+
+    public Long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(Long processed) {
+        this.processed = processed;
+    }
+
+    public Boolean getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Boolean finished) {
+        this.finished = finished;
+    }
+}
@@ -1,7 +1,9 @@
 package com.space.model;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 
 import javax.persistence.*;
 import java.util.Date;
@@ -26,6 +28,11 @@ public class Ship {
     private Integer crewSize;
     private Double rating;
 
+    // Incremented by every write; the ETag of GET /rest/ships/{id}, never part of the JSON body
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @Contract(pure = true)
     public Ship() {
     }
@@ -42,6 +49,15 @@ public class Ship {
         this.rating = rating;
     }
 
+    @Contract(pure = true)
+    public Ship(@NotNull Ship other) {
+        this(other.name, other.planet, other.shipType,
+                other.prodDate == null ? null : new Date(other.prodDate.getTime()),
+                other.isUsed, other.speed, other.crewSize, other.rating);
+        this.id = other.id;
+        this.version = other.version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -114,6 +130,14 @@ public class Ship {
         this.rating = rating;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Contract(value = "null -> false", pure = true)
     @Override
     public boolean equals(Object o) {
@@ -128,11 +152,12 @@ public class Ship {
                 Objects.equals(isUsed, ship.isUsed) &&
                 Objects.equals(speed, ship.speed) &&
                 Objects.equals(crewSize, ship.crewSize) &&
-                Objects.equals(rating, ship.rating);
+                Objects.equals(rating, ship.rating) &&
+                Objects.equals(version, ship.version);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, planet, shipType, prodDate, isUsed, speed, crewSize, rating);
+        return Objects.hash(id, name, planet, shipType, prodDate, isUsed, speed, crewSize, rating, version);
     }
 }
@@ -3,11 +3,26 @@ package com.space.repository;
 import com.space.model.Ship;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface ShipRepository
-        extends JpaRepository<Ship, Long>, JpaSpecificationExecutor<Ship> {
+        extends JpaRepository<Ship, Long>, JpaSpecificationExecutor<Ship>, ShipRepositoryCustom {
 
+    @Transactional(readOnly = true)
     Ship getById(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Ship s where s.id = :id")
+    int deleteShipById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Ship s where s.id = :id and s.version = :version")
+    int deleteShipByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
\ No newline at end of file
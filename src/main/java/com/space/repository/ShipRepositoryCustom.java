@@ -0,0 +1,35 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ShipRepositoryCustom {
+
+    List<Ship> findContent(Specification<Ship> spec, Pageable pageable);
+
+    Stream<Ship> streamContent(Specification<Ship> spec, Sort sort, int fetchSize);
+
+    int updateShip(Long id, Ship changes);
+
+    Ship findCurrent(Long id);
+
+    List<Ship> lockAll(Collection<Long> ids);
+
+    List<Ship> findAllCurrent(Collection<Long> ids);
+
+    int[] insertAll(List<Ship> ships);
+
+    List<Ship> findRatingInputs(long afterId, int limit);
+
+    int[] updateRatings(List<Ship> ships);
+
+    List<Object[]> aggregate(Specification<Ship> spec);
+
+    List<Object[]> valueCounts(Specification<Ship> spec, String attribute);
+}
@@ -0,0 +1,282 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+@Transactional(readOnly = true)
+public class ShipRepositoryImpl implements ShipRepositoryCustom {
+
+    private static final String INSERT_SHIP = "INSERT INTO ship " +
+            "(name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_RATING_INPUTS = "SELECT id, prodDate, isUsed, speed, rating, version FROM ship " +
+            "WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Only while the row is at the version its inputs were read at: a ship changed in between is left alone
+    private static final String UPDATE_RATING = "UPDATE ship SET rating = ?, version = version + 1 " +
+            "WHERE id = ? AND version = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Same query as findAll(spec, pageable) without the COUNT(*) that builds the Page total
+    @Override
+    public List<Ship> findContent(Specification<Ship> spec, Pageable pageable) {
+        return select(spec, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    // One row per (shipType, isUsed, planet) of the matching ships: shipType, isUsed, planet, COUNT(*),
+    // then COUNT, SUM, MIN and MAX of speed, rating and crewSize
+    @Override
+    public List<Object[]> aggregate(Specification<Ship> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        Root<Ship> root = query.from(Ship.class);
+
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(root.get("shipType"));
+        columns.add(root.get("isUsed"));
+        columns.add(root.get("planet"));
+        columns.add(builder.count(root));
+        for (String measure : new String[]{"speed", "rating", "crewSize"}) {
+            Expression<Number> path = root.get(measure);
+            columns.add(builder.count(path));
+            columns.add(builder.sum(path));
+            columns.add(builder.min(path));
+            columns.add(builder.max(path));
+        }
+        query.multiselect(columns);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.groupBy(root.get("shipType"), root.get("isUsed"), root.get("planet"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Ships per value of one attribute among the matching ships, NULL included: value, COUNT(*).
+    // ShipStatsCache keeps these per (shipType, isUsed), so that min and max stay exact when a ship is taken out
+    @Override
+    public List<Object[]> valueCounts(Specification<Ship> spec, String attribute) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        Root<Ship> root = query.from(Ship.class);
+
+        query.multiselect(root.get(attribute), builder.count(root));
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(root.get(attribute));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Forward-only cursor (Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the result);
+    // each ship is detached once read, so the persistence context does not grow with the result
+    @Override
+    public Stream<Ship> streamContent(Specification<Ship> spec, Sort sort, int fetchSize) {
+        return select(spec, sort)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    private TypedQuery<Ship> select(Specification<Ship> spec, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = builder.createQuery(Ship.class);
+        Root<Ship> root = query.from(Ship.class);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(toOrders(sort, root, builder));
+
+        return entityManager.createQuery(query);
+    }
+
+    // Sets the non-null fields of changes, the rating included. A non-null changes.version is the version
+    // the row must still have, otherwise nothing is updated
+    @Override
+    @Transactional
+    public int updateShip(Long id, Ship changes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ship> update = builder.createCriteriaUpdate(Ship.class);
+        Root<Ship> root = update.from(Ship.class);
+
+        if (changes.getName() != null) {
+            update.set(root.<String>get("name"), changes.getName());
+        }
+        if (changes.getPlanet() != null) {
+            update.set(root.<String>get("planet"), changes.getPlanet());
+        }
+        if (changes.getShipType() != null) {
+            update.set(root.<ShipType>get("shipType"), changes.getShipType());
+        }
+        if (changes.getProdDate() != null) {
+            update.set(root.<Date>get("prodDate"), changes.getProdDate());
+        }
+        if (changes.getUsed() != null) {
+            update.set(root.<Boolean>get("isUsed"), changes.getUsed());
+        }
+        if (changes.getSpeed() != null) {
+            update.set(root.<Double>get("speed"), changes.getSpeed());
+        }
+        if (changes.getCrewSize() != null) {
+            update.set(root.<Integer>get("crewSize"), changes.getCrewSize());
+        }
+        if (changes.getRating() != null) {
+            update.set(root.<Double>get("rating"), changes.getRating());
+        }
+
+        // a bulk update does not bump @Version by itself
+        update.set(root.<Long>get("version"), builder.sum(root.<Long>get("version"), 1L));
+
+        Predicate where = builder.equal(root.get("id"), id);
+        if (changes.getVersion() != null) {
+            where = builder.and(where, builder.equal(root.get("version"), changes.getVersion()));
+        }
+        update.where(where);
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // Read-write transactions are never routed to a replica, so this sees the last committed row
+    @Override
+    @Transactional
+    public Ship findCurrent(Long id) {
+        return entityManager.find(Ship.class, id);
+    }
+
+    // Locks the rows until the transaction ends (SELECT ... FOR UPDATE) and returns them detached, so that a
+    // later read in the same transaction sees what it wrote
+    @Override
+    @Transactional
+    public List<Ship> lockAll(Collection<Long> ids) {
+        List<Ship> ships = entityManager.createQuery("select s from Ship s where s.id in :ids", Ship.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        ships.forEach(entityManager::detach);
+        return ships;
+    }
+
+    @Override
+    @Transactional
+    public List<Ship> findAllCurrent(Collection<Long> ids) {
+        List<Ship> ships = entityManager.createQuery("select s from Ship s where s.id in :ids", Ship.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        ships.forEach(entityManager::detach);
+        return ships;
+    }
+
+    // One JDBC batch in one transaction; Hibernate's IDENTITY ids would force a round trip per row
+    @Override
+    @Transactional
+    public int[] insertAll(List<Ship> ships) {
+        return jdbcTemplate.batchUpdate(INSERT_SHIP, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Ship ship = ships.get(i);
+                ps.setString(1, ship.getName());
+                ps.setString(2, ship.getPlanet());
+                ps.setString(3, ship.getShipType().name());
+                ps.setDate(4, new java.sql.Date(ship.getProdDate().getTime()));
+                ps.setBoolean(5, ship.getUsed());
+                ps.setDouble(6, ship.getSpeed());
+                ps.setInt(7, ship.getCrewSize());
+                ps.setDouble(8, ship.getRating());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ships.size();
+            }
+        });
+    }
+
+    // Next id range of the columns the rating depends on, read straight into unmanaged ships. Read-write
+    // so it is served by the primary: a replica's older versions would make every rating write miss
+    @Override
+    @Transactional
+    public List<Ship> findRatingInputs(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_RATING_INPUTS, (rs, rowNum) -> {
+            Ship ship = new Ship();
+            ship.setId(rs.getLong("id"));
+            ship.setProdDate(rs.getDate("prodDate"));
+            ship.setUsed(rs.getObject("isUsed", Boolean.class));
+            ship.setSpeed(rs.getObject("speed", Double.class));
+            ship.setRating(rs.getObject("rating", Double.class));
+            ship.setVersion(rs.getLong("version"));
+            return ship;
+        }, afterId, limit);
+    }
+
+    @Override
+    @Transactional
+    public int[] updateRatings(List<Ship> ships) {
+        return jdbcTemplate.batchUpdate(UPDATE_RATING, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Ship ship = ships.get(i);
+                ps.setObject(1, ship.getRating(), Types.DOUBLE);
+                ps.setLong(2, ship.getId());
+                ps.setLong(3, ship.getVersion());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ships.size();
+            }
+        });
+    }
+}
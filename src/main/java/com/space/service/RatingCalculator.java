@@ -0,0 +1,44 @@
+package com.space.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+// rating = 80 * speed * k / (3019 - year + 1), rounded to hundredths; k is 0.5 for a used ship.
+// The production year comes from a table of year starts in the default time zone instead of a Calendar per call.
+@Component
+public class RatingCalculator {
+    static final int CURRENT_YEAR = 3019;
+    static final int MIN_YEAR = 2800;
+
+    // yearStarts[i] is 1 January of MIN_YEAR + i; the last entry closes CURRENT_YEAR
+    private final long[] yearStarts = new long[CURRENT_YEAR - MIN_YEAR + 2];
+
+    public RatingCalculator() {
+        GregorianCalendar c = new GregorianCalendar();
+        for (int i = 0; i < yearStarts.length; i++) {
+            c.clear();
+            c.set(MIN_YEAR + i, Calendar.JANUARY, 1);
+            yearStarts[i] = c.getTimeInMillis();
+        }
+    }
+
+    public double rating(double speed, long prodDate, boolean isUsed) {
+        double k = isUsed ? 0.5 : 1;
+        double rating = 80 * speed * k / (CURRENT_YEAR - year(prodDate) + 1);
+        return Math.round(rating * 100) / 100.0;
+    }
+
+    // Dates the controller would reject are left to Calendar
+    public int year(long millis) {
+        if (millis < yearStarts[0] || millis >= yearStarts[yearStarts.length - 1]) {
+            Calendar c = Calendar.getInstance();
+            c.setTimeInMillis(millis);
+            return c.get(Calendar.YEAR);
+        }
+        int index = Arrays.binarySearch(yearStarts, millis);
+        return MIN_YEAR + (index >= 0 ? index : -index - 2);
+    }
+}
@@ -0,0 +1,47 @@
+package com.space.service;
+
+import org.jetbrains.annotations.Contract;
+
+public class RatingJobStatus {
+    private boolean running;
+    private boolean finished;
+    private long lastId;
+    private long processed;
+    private double rowsPerSecond;
+    private String error;
+
+    @Contract(pure = true)
+    public RatingJobStatus(boolean running, boolean finished, long lastId, long processed,
+                           double rowsPerSecond, String error) {
+        this.running = running;
+        this.finished = finished;
+        this.lastId = lastId;
+        this.processed = processed;
+        this.rowsPerSecond = rowsPerSecond;
+        this.error = error;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
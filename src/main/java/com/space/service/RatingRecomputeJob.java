@@ -0,0 +1,230 @@
+package com.space.service;
+
+import com.space.model.RatingCheckpoint;
+import com.space.model.Ship;
+import com.space.repository.RatingCheckpointRepository;
+import com.space.repository.ShipRepository;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Recomputes every rating in id order, one chunk at a time: read the chunk, rate it on the fork-join pool,
+// then write the ratings that changed and advance the checkpoint in one transaction. Each rating is written
+// only if the ship is still at the version it was read at; ships changed in between are read and rated
+// again before the next chunk. Ships whose rating stays the same keep their version, and with it their
+// ETag. A stopped or crashed run continues from the last committed chunk the next time it is started.
+@Component
+public class RatingRecomputeJob implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(RatingRecomputeJob.class);
+
+    private final ShipRepository shipRepository;
+    private final RatingCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShipCache shipCache;
+    private final ShipQueryCache queryCache;
+    private final ShipStatsCache statsCache;
+    private final RatingCalculator ratingCalculator;
+    private final int chunkSize;
+
+    private final ForkJoinPool pool;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "rating-recompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopRequested;
+    private volatile boolean finished;
+    private volatile long lastId;
+    private volatile long processed;
+    private volatile long runProcessed;
+    private volatile long runStartedNanos;
+    private volatile long runStoppedNanos;
+    private volatile String error;
+
+    @Autowired
+    public RatingRecomputeJob(ShipRepository shipRepository,
+                              RatingCheckpointRepository checkpointRepository,
+                              PlatformTransactionManager transactionManager,
+                              ShipCache shipCache,
+                              ShipQueryCache queryCache,
+                              ShipStatsCache statsCache,
+                              RatingCalculator ratingCalculator,
+                              @Value("${ratings.chunkSize:10000}") int chunkSize,
+                              @Value("${ratings.parallelism:0}") int parallelism) {
+        this.shipRepository = shipRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shipCache = shipCache;
+        this.queryCache = queryCache;
+        this.statsCache = statsCache;
+        this.ratingCalculator = ratingCalculator;
+        this.chunkSize = chunkSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Returns false when a run is already in progress
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        stopRequested = false;
+        error = null;
+        runner.execute(this::run);
+        return true;
+    }
+
+    // The current chunk is still committed; the run ends before the next one is read
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public RatingJobStatus status() {
+        boolean isRunning = running.get();
+        long elapsed = (isRunning ? System.nanoTime() : runStoppedNanos) - runStartedNanos;
+        double rowsPerSecond = runStartedNanos == 0 || elapsed <= 0
+                ? 0
+                : runProcessed * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        return new RatingJobStatus(isRunning, finished, lastId, processed, rowsPerSecond, error);
+    }
+
+    @Override
+    public void destroy() {
+        stopRequested = true;
+        runner.shutdown();
+        pool.shutdown();
+    }
+
+    private void run() {
+        runProcessed = 0;
+        runStartedNanos = System.nanoTime();
+        try {
+            RatingCheckpoint checkpoint = resume();
+            lastId = checkpoint.getLastId();
+            processed = checkpoint.getProcessed();
+            finished = false;
+
+            while (!stopRequested) {
+                List<Ship> chunk = shipRepository.findRatingInputs(lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    saveCheckpoint(new RatingCheckpoint(lastId, processed, true));
+                    finished = true;
+                    break;
+                }
+
+                List<Ship> changed = rate(chunk);
+                RatingCheckpoint next = new RatingCheckpoint(chunk.get(chunk.size() - 1).getId(),
+                        processed + chunk.size(), false);
+                if (changed.isEmpty()) {
+                    saveCheckpoint(next);
+                } else {
+                    int[] written = statsCache.change(ids(changed), () -> transactionTemplate.execute(status -> {
+                        int[] counts = shipRepository.updateRatings(changed);
+                        checkpointRepository.save(next);
+                        return counts;
+                    }));
+                    rateAgain(skipped(changed, written));
+
+                    for (Ship ship : changed) {
+                        shipCache.invalidate(ship.getId());
+                    }
+                    queryCache.tableChanged();
+                }
+
+                lastId = next.getLastId();
+                processed = next.getProcessed();
+                runProcessed += chunk.size();
+            }
+        } catch (Exception e) {
+            log.error("Rating recompute stopped after ship " + lastId, e);
+            error = e.toString();
+        } finally {
+            runStoppedNanos = System.nanoTime();
+            running.set(false);
+        }
+    }
+
+    // A finished (or never started) run begins again at the start of the table
+    private RatingCheckpoint resume() {
+        RatingCheckpoint checkpoint = checkpointRepository.findById(RatingCheckpoint.ID).orElse(null);
+        if (checkpoint == null || checkpoint.getFinished()) {
+            checkpoint = saveCheckpoint(new RatingCheckpoint(0L, 0L, false));
+        }
+        return checkpoint;
+    }
+
+    private RatingCheckpoint saveCheckpoint(RatingCheckpoint checkpoint) {
+        return transactionTemplate.execute(status -> checkpointRepository.save(checkpoint));
+    }
+
+    // Until every ship is written at its current version; a ship deleted in between needs no rating
+    private void rateAgain(@NotNull List<Ship> skipped) throws ExecutionException, InterruptedException {
+        while (!skipped.isEmpty()) {
+            List<Ship> current = new ArrayList<>(skipped.size());
+            for (Ship ship : skipped) {
+                Ship stored = shipRepository.findCurrent(ship.getId());
+                if (stored != null) {
+                    current.add(stored);
+                }
+            }
+            List<Ship> changed = rate(current);
+            if (changed.isEmpty()) {
+                return;
+            }
+            int[] written = statsCache.change(ids(changed), () -> transactionTemplate.execute(status ->
+                    shipRepository.updateRatings(changed)));
+            skipped = skipped(changed, written);
+        }
+    }
+
+    // A count of 0 means the version check failed; the driver may report a rewritten batch as SUCCESS_NO_INFO
+    @NotNull
+    private static List<Ship> skipped(@NotNull List<Ship> ships, int[] written) {
+        List<Ship> skipped = new ArrayList<>();
+        for (int i = 0; i < ships.size(); i++) {
+            if (written[i] == 0) {
+                skipped.add(ships.get(i));
+            }
+        }
+        return skipped;
+    }
+
+    @NotNull
+    private static List<Long> ids(@NotNull List<Ship> ships) {
+        return ships.stream().map(Ship::getId).collect(Collectors.toList());
+    }
+
+    // Returns the ships whose rating changed; ships missing one of the inputs keep their stored rating
+    private List<Ship> rate(@NotNull List<Ship> chunk) throws ExecutionException, InterruptedException {
+        return pool.submit(() -> chunk.parallelStream()
+                .filter(ship -> {
+                    if (ship.getSpeed() == null || ship.getProdDate() == null || ship.getUsed() == null) {
+                        return false;
+                    }
+                    double rating = ratingCalculator.rating(ship.getSpeed(), ship.getProdDate().getTime(), ship.getUsed());
+                    if (ship.getRating() != null && ship.getRating() == rating) {
+                        return false;
+                    }
+                    ship.setRating(rating);
+                    return true;
+                })
+                .collect(Collectors.toList())).get();
+    }
+}
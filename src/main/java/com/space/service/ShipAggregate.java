@@ -0,0 +1,180 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Running count, sum, min and max of the ships of one (shipType, isUsed) cell, plus ships per planet.
+// Adding a ship is always exact. Removing one needs the cell's value distributions, which only the cells
+// built by exact() keep: min and max are then taken back out of them.
+class ShipAggregate {
+    // the last slot holds ships without a type
+    static final int TYPES = ShipType.values().length + 1;
+
+    long count;
+    final Measure speed;
+    final Measure rating;
+    final Measure crewSize;
+    final Map<String, Long> planets = new HashMap<>();
+
+    ShipAggregate() {
+        this(false);
+    }
+
+    private ShipAggregate(boolean removable) {
+        speed = new Measure(removable);
+        rating = new Measure(removable);
+        crewSize = new Measure(removable);
+    }
+
+    static ShipAggregate[][] cells() {
+        ShipAggregate[][] cells = new ShipAggregate[TYPES][2];
+        for (ShipAggregate[] byUsed : cells) {
+            byUsed[0] = new ShipAggregate();
+            byUsed[1] = new ShipAggregate();
+        }
+        return cells;
+    }
+
+    // Rows of ShipRepository.valueCounts for planet, speed, rating and crewSize over the ships of one cell
+    static ShipAggregate exact(List<Object[]> planets, List<Object[]> speeds, List<Object[]> ratings,
+                               List<Object[]> crewSizes) {
+        ShipAggregate cell = new ShipAggregate(true);
+        for (Object[] row : planets) {
+            long count = ((Number) row[1]).longValue();
+            cell.count += count;
+            if (row[0] != null) {
+                cell.planets.put((String) row[0], count);
+            }
+        }
+        cell.speed.addAll(speeds);
+        cell.rating.addAll(ratings);
+        cell.crewSize.addAll(crewSizes);
+        return cell;
+    }
+
+    // Rows of ShipRepository.aggregate: shipType, isUsed, planet, COUNT(*),
+    // then COUNT/SUM/MIN/MAX of speed, rating and crewSize
+    static ShipAggregate[][] cells(List<Object[]> rows) {
+        ShipAggregate[][] cells = cells();
+        for (Object[] row : rows) {
+            ShipAggregate cell = cell(cells, (ShipType) row[0], (Boolean) row[1]);
+            long count = ((Number) row[3]).longValue();
+            cell.count += count;
+            if (row[2] != null) {
+                cell.planets.merge((String) row[2], count, Long::sum);
+            }
+            cell.speed.add(row, 4);
+            cell.rating.add(row, 8);
+            cell.crewSize.add(row, 12);
+        }
+        return cells;
+    }
+
+    static ShipAggregate cell(ShipAggregate[][] cells, ShipType shipType, Boolean isUsed) {
+        return cells[shipType == null ? TYPES - 1 : shipType.ordinal()][Boolean.TRUE.equals(isUsed) ? 1 : 0];
+    }
+
+    void add(Ship ship) {
+        count++;
+        if (ship.getPlanet() != null) {
+            planets.merge(ship.getPlanet(), 1L, Long::sum);
+        }
+        speed.add(ship.getSpeed(), 1);
+        rating.add(ship.getRating(), 1);
+        crewSize.add(ship.getCrewSize(), 1);
+    }
+
+    // Only on exact() cells
+    void remove(Ship ship) {
+        count--;
+        if (ship.getPlanet() != null) {
+            planets.computeIfPresent(ship.getPlanet(), (planet, ships) -> ships > 1 ? ships - 1 : null);
+        }
+        speed.remove(ship.getSpeed());
+        rating.remove(ship.getRating());
+        crewSize.remove(ship.getCrewSize());
+    }
+
+    void addTo(ShipAggregate total) {
+        total.count += count;
+        planets.forEach((planet, ships) -> total.planets.merge(planet, ships, Long::sum));
+        speed.addTo(total.speed);
+        rating.addTo(total.rating);
+        crewSize.addTo(total.crewSize);
+    }
+
+    // NULL values are left out, as SQL aggregate functions do
+    static class Measure {
+        long count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        // value -> ships with it; null unless values can be removed
+        private final TreeMap<Double, Long> values;
+
+        Measure(boolean removable) {
+            values = removable ? new TreeMap<>() : null;
+        }
+
+        void add(Number value, long ships) {
+            if (value == null) {
+                return;
+            }
+            double v = value.doubleValue();
+            count += ships;
+            sum += v * ships;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+            if (values != null) {
+                values.merge(v, ships, Long::sum);
+            }
+        }
+
+        // value, COUNT(*)
+        void addAll(List<Object[]> rows) {
+            for (Object[] row : rows) {
+                add((Number) row[0], ((Number) row[1]).longValue());
+            }
+        }
+
+        void remove(Number value) {
+            if (value == null) {
+                return;
+            }
+            double v = value.doubleValue();
+            count--;
+            sum -= v;
+            values.computeIfPresent(v, (key, ships) -> ships > 1 ? ships - 1 : null);
+            min = values.isEmpty() ? Double.POSITIVE_INFINITY : values.firstKey();
+            max = values.isEmpty() ? Double.NEGATIVE_INFINITY : values.lastKey();
+            if (count == 0) {
+                // no rounding left behind by the removals
+                sum = 0;
+            }
+        }
+
+        // COUNT, SUM, MIN, MAX starting at row[from]
+        void add(Object[] row, int from) {
+            long rows = ((Number) row[from]).longValue();
+            if (rows == 0) {
+                return;
+            }
+            count += rows;
+            sum += ((Number) row[from + 1]).doubleValue();
+            min = Math.min(min, ((Number) row[from + 2]).doubleValue());
+            max = Math.max(max, ((Number) row[from + 3]).doubleValue());
+        }
+
+        void addTo(Measure total) {
+            total.count += count;
+            total.sum += sum;
+            total.min = Math.min(total.min, min);
+            total.max = Math.max(total.max, max);
+        }
+    }
+}
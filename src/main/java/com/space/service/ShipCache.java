@@ -0,0 +1,51 @@
+package com.space.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.space.model.Ship;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Component
+public class ShipCache {
+
+    private final Cache<Long, Ship> cache;
+
+    @Autowired
+    public ShipCache(MeterRegistry meterRegistry,
+                     @Value("${cache.ship.maxSize:10000}") long maxSize,
+                     @Value("${cache.ship.ttlSeconds:300}") long ttlSeconds) {
+        if (maxSize <= 0) {
+            // disabled: every read goes to the database
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ship");
+    }
+
+    // Callers get their own copy: the controller mutates the ship it reads before validating the update
+    public Ship get(Long id, Function<Long, Ship> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        Ship ship = cache.get(id, loader);
+        return ship == null ? null : new Ship(ship);
+    }
+
+    public void invalidate(Long id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+}
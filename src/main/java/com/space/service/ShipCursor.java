@@ -0,0 +1,101 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+public class ShipCursor {
+
+    // the encoded key of a last row without one
+    private static final String NULL_KEY = "";
+
+    private final ShipOrder order;
+    private final Comparable<?> value;
+    private final long id;
+
+    @Contract(pure = true)
+    private ShipCursor(ShipOrder order, Comparable<?> value, long id) {
+        this.order = order;
+        this.value = value;
+        this.id = id;
+    }
+
+    @NotNull
+    public static ShipCursor after(@NotNull ShipOrder order, @NotNull Ship last) {
+        switch (order) {
+            case SPEED:
+                return new ShipCursor(order, last.getSpeed(), last.getId());
+            case DATE:
+                return new ShipCursor(order, last.getProdDate(), last.getId());
+            case RATING:
+                return new ShipCursor(order, last.getRating(), last.getId());
+            default:
+                return new ShipCursor(order, last.getId(), last.getId());
+        }
+    }
+
+    @NotNull
+    public static ShipCursor decode(@NotNull ShipOrder order, @NotNull String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        if (parts.length != 3 || !parts[0].equals(order.name())) {
+            throw new IllegalArgumentException("Cursor does not belong to order " + order);
+        }
+
+        long id = Long.parseLong(parts[2]);
+        if (order != ShipOrder.ID && parts[1].equals(NULL_KEY)) {
+            return new ShipCursor(order, null, id);
+        }
+        switch (order) {
+            case SPEED:
+            case RATING:
+                return new ShipCursor(order, Double.valueOf(parts[1]), id);
+            case DATE:
+                return new ShipCursor(order, new Date(Long.parseLong(parts[1])), id);
+            default:
+                return new ShipCursor(order, id, id);
+        }
+    }
+
+    @NotNull
+    public String encode() {
+        String text = order.name() + ":" +
+                (value == null ? NULL_KEY : value instanceof Date ? ((Date) value).getTime() : value) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // (key, id) > (value, id), matching the ORDER BY key, id of the seek query. NULL keys sort first in
+    // ascending order on MySQL and H2 alike, so after a NULL key come the other NULL keys with a greater id
+    // and then every non-NULL key; after a value, NULL keys are already behind
+    @SuppressWarnings("unchecked")
+    public Specification<Ship> toSpecification() {
+        return (root, query, builder) -> {
+            Path<Long> idPath = root.get("id");
+            if (order == ShipOrder.ID) {
+                return builder.greaterThan(idPath, id);
+            }
+
+            Path<Comparable<Object>> keyPath = root.get(order.getFieldName());
+            if (value == null) {
+                return builder.or(
+                        builder.isNotNull(keyPath),
+                        builder.and(builder.isNull(keyPath), builder.greaterThan(idPath, id)));
+            }
+            Comparable<Object> key = (Comparable<Object>) value;
+            return builder.or(
+                    builder.greaterThan(keyPath, key),
+                    builder.and(builder.equal(keyPath, key), builder.greaterThan(idPath, id)));
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+// Synthetic ships within the ranges POST /rest/ships accepts. seed.ships of them are inserted through the
+// bulk path once the context is up; the embedded profile uses this instead of the init.sql sample data.
+@Component
+public class ShipDataGenerator implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ShipDataGenerator.class);
+
+    private static final String[] NAMES = {"Orion", "Daedalus", "Eagle Transporter", "Nostromo", "Serenity",
+            "Enterprise", "Rocinante", "Millennium Falcon", "Normandy", "Galactica", "Event Horizon",
+            "Discovery", "Prometheus", "Excalibur", "Icarus", "Valkyrie", "Bebop", "Sulaco", "Hyperion", "Arcadia"};
+    private static final String[] PLANETS = {"Earth", "Mars", "Jupiter", "Saturn", "Uranus", "Neptune",
+            "Venus", "Mercury", "Pluto", "Titan", "Europa", "Ganymede", "Callisto", "Io", "Ceres", "Eris"};
+    private static final String[] NUMERALS = {"", " I", " II", " III", " IV", " V", " VI", " VII", " VIII", " IX"};
+    private static final ShipType[] TYPES = ShipType.values();
+    private static final int BATCH_SIZE = 10000;
+
+    private final ShipService shipService;
+    private final long seedShips;
+    private final long seed;
+    private final long minProdDate;
+    private final long maxProdDate;
+
+    @Autowired
+    public ShipDataGenerator(ShipService shipService,
+                             @Value("${seed.ships:0}") long seedShips,
+                             @Value("${seed.random:3019}") long seed) {
+        this.shipService = shipService;
+        this.seedShips = seedShips;
+        this.seed = seed;
+        this.minProdDate = new GregorianCalendar(2800, Calendar.JANUARY, 1).getTimeInMillis();
+        this.maxProdDate = new GregorianCalendar(3020, Calendar.JANUARY, 1).getTimeInMillis();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (seedShips > 0) {
+            generate(seedShips);
+        }
+    }
+
+    // Same seed, same ships; returns the number of ships inserted
+    public long generate(long count) {
+        Random random = new Random(seed);
+        List<Ship> batch = new ArrayList<>(BATCH_SIZE);
+        long created = 0;
+        long started = System.nanoTime();
+
+        for (long i = 0; i < count; i++) {
+            batch.add(next(random));
+            if (batch.size() == BATCH_SIZE) {
+                created += shipService.createShips(batch);
+                batch.clear();
+            }
+        }
+        created += shipService.createShips(batch);
+
+        log.info("Generated " + created + " ships in " + (System.nanoTime() - started) / 1000000 + " ms");
+        return created;
+    }
+
+    public Ship next(@NotNull Random random) {
+        String name = NAMES[random.nextInt(NAMES.length)] + NUMERALS[random.nextInt(NUMERALS.length)];
+        String planet = PLANETS[random.nextInt(PLANETS.length)];
+        ShipType shipType = TYPES[random.nextInt(TYPES.length)];
+        Date prodDate = new Date(minProdDate + (long) (random.nextDouble() * (maxProdDate - minProdDate)));
+        boolean isUsed = random.nextBoolean();
+        double speed = (1 + random.nextInt(99)) / 100.0;
+        int crewSize = 1 + random.nextInt(9999);
+
+        return new Ship(name, planet, shipType, prodDate, isUsed, speed, crewSize, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.space.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class ShipQueryCache {
+
+    private final Cache<String, Object> cache;
+    private final TableVersion tableVersion;
+
+    @Autowired
+    public ShipQueryCache(MeterRegistry meterRegistry,
+                          TableVersion tableVersion,
+                          @Value("${cache.query.maxShips:100000}") long maxShips,
+                          @Value("${cache.query.ttlSeconds:60}") long ttlSeconds) {
+        this.tableVersion = tableVersion;
+        if (maxShips <= 0) {
+            // disabled: every query goes to the database
+            this.cache = null;
+            return;
+        }
+        // weighed by the number of ships held, so the bound follows memory rather than entry count
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxShips)
+                .<String, Object>weigher((key, value) ->
+                        value instanceof Slice ? 1 + ((Slice<?>) value).getNumberOfElements() : 1)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "shipQuery");
+    }
+
+    // Entries are keyed by the table version they were read at, so a result racing a write is never served
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        return (T) cache.get(tableVersion.current() + "|" + key, k -> loader.get());
+    }
+
+    // Ships held once pending evictions have run; never more than cache.query.maxShips
+    public long weight() {
+        if (cache == null) {
+            return 0;
+        }
+        cache.cleanUp();
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    public void tableChanged() {
+        tableVersion.bump();
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -7,24 +7,59 @@ import com.space.repository.ShipRepository;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Calendar;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class ShipService {
 
     private final ShipRepository shipRepository;
+    private final ShipCache shipCache;
+    private final ShipQueryCache queryCache;
+    private final TableVersion tableVersion;
+    private final ShipStatsCache statsCache;
+    private final RatingCalculator ratingCalculator;
+    private final SlowQueryLog slowQueryLog;
+    private final boolean fullTextSearch;
+    private final int exportFetchSize;
 
     @Contract(pure = true)
     @Autowired
-    public ShipService(ShipRepository shipRepository) {
+    public ShipService(ShipRepository shipRepository,
+                       ShipCache shipCache,
+                       ShipQueryCache queryCache,
+                       TableVersion tableVersion,
+                       ShipStatsCache statsCache,
+                       RatingCalculator ratingCalculator,
+                       SlowQueryLog slowQueryLog,
+                       @Value("${search.fulltext:true}") boolean fullTextSearch,
+                       @Value("${export.fetchSize:" + Integer.MIN_VALUE + "}") int exportFetchSize) {
         this.shipRepository = shipRepository;
+        this.shipCache = shipCache;
+        this.queryCache = queryCache;
+        this.tableVersion = tableVersion;
+        this.statsCache = statsCache;
+        this.ratingCalculator = ratingCalculator;
+        this.slowQueryLog = slowQueryLog;
+        this.fullTextSearch = fullTextSearch;
+        this.exportFetchSize = exportFetchSize;
     }
 
     public Page<Ship> getAll(
@@ -44,14 +79,113 @@ public class ShipService {
             @NotNull ShipOrder order,
             Integer pageNumber,
             Integer pageSize){
-        Specification spec = createSpecification(id, name, planet, shipType, after, before, isUsed,
+        ShipSpecificationsBuilder criteria = createCriteria(id, name, planet, shipType, after, before, isUsed,
                 minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
 
-        return shipRepository.findAll(spec, PageRequest.of(pageNumber, pageSize, Sort.by(order.getFieldName())));
+        String key = "all|" + criteria.key() + "|" + order + "|" + pageNumber + "|" + pageSize;
+        return queryCache.get(key, () -> slowQueryLog.time(key, () -> shipRepository.findAll(criteria.build(),
+                PageRequest.of(pageNumber, pageSize, Sort.by(order.getFieldName())))));
 
     }
 
-    public Integer getCount(
+    public Page<Ship> getPage(
+            Long id,
+            String name,
+            String planet,
+            ShipType shipType,
+            Long after,
+            Long before,
+            Boolean isUsed,
+            Double minSpeed,
+            Double maxSpeed,
+            Integer minCrewSize,
+            Integer maxCrewSize,
+            Double minRating,
+            Double maxRating,
+            @NotNull ShipOrder order,
+            Integer pageNumber,
+            Integer pageSize,
+            Long total){
+        ShipSpecificationsBuilder criteria = createCriteria(id, name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(order.getFieldName()));
+
+        String key = "page|" + criteria.key() + "|" + order + "|" + pageNumber + "|" + pageSize + "|" + total;
+        return queryCache.get(key, () -> slowQueryLog.time(key, () -> {
+            if(total == null) {
+                return shipRepository.findAll(criteria.build(), pageable);
+            }
+            // the client already knows the total for this filter set, so skip the COUNT(*)
+            return new PageImpl<>(shipRepository.findContent(criteria.build(), pageable), pageable, total);
+        }));
+    }
+
+    public Slice<Ship> getSlice(
+            Long id,
+            String name,
+            String planet,
+            ShipType shipType,
+            Long after,
+            Long before,
+            Boolean isUsed,
+            Double minSpeed,
+            Double maxSpeed,
+            Integer minCrewSize,
+            Integer maxCrewSize,
+            Double minRating,
+            Double maxRating,
+            @NotNull ShipOrder order,
+            ShipCursor cursor,
+            Integer pageSize){
+        ShipSpecificationsBuilder criteria = createCriteria(id, name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        Specification<Ship> spec = cursor == null
+                ? criteria.build()
+                : Specification.where(criteria.build()).and(cursor.toSpecification());
+
+        Sort sort = uniqueSort(order);
+        // one extra row tells whether another slice follows
+        List<Ship> content = slowQueryLog.time(
+                "seek|" + criteria.key() + "|" + order + "|" + (cursor == null ? "" : cursor.encode()) + "|" + pageSize,
+                () -> shipRepository.findContent(spec, PageRequest.of(0, pageSize + 1, sort)));
+
+        boolean hasNext = content.size() > pageSize;
+        if(hasNext) {
+            content = content.subList(0, pageSize);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, pageSize, sort), hasNext);
+    }
+
+    // Feeds every matching ship to sink from one forward-only cursor; nothing is cached or collected
+    @Transactional(readOnly = true)
+    public void exportShips(
+            Long id,
+            String name,
+            String planet,
+            ShipType shipType,
+            Long after,
+            Long before,
+            Boolean isUsed,
+            Double minSpeed,
+            Double maxSpeed,
+            Integer minCrewSize,
+            Integer maxCrewSize,
+            Double minRating,
+            Double maxRating,
+            @NotNull ShipOrder order,
+            @NotNull ShipSink sink) throws IOException {
+        Specification<Ship> spec = createCriteria(id, name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating).build();
+
+        try (Stream<Ship> ships = shipRepository.streamContent(spec, uniqueSort(order), exportFetchSize)) {
+            Iterator<Ship> iterator = ships.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+            }
+        }
+    }
+
+    public Long getCount(
             Long id,
             String name,
             String planet,
@@ -65,9 +199,39 @@ public class ShipService {
             Integer maxCrewSize,
             Double minRating,
             Double maxRating){
-        Specification spec = createSpecification(id, name, planet, shipType, after, before, isUsed,
+        ShipSpecificationsBuilder criteria = createCriteria(id, name, planet, shipType, after, before, isUsed,
                 minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
-        return shipRepository.findAll(spec).size();
+        String key = "count|" + criteria.key();
+        return queryCache.get(key, () -> slowQueryLog.time(key, () -> shipRepository.count(criteria.build())));
+    }
+
+    // Unfiltered, per-type and per-isUsed stats come from the in-memory aggregates,
+    // any other filter is answered by one GROUP BY query
+    public ShipStats getStats(
+            Long id,
+            String name,
+            String planet,
+            ShipType shipType,
+            Long after,
+            Long before,
+            Boolean isUsed,
+            Double minSpeed,
+            Double maxSpeed,
+            Integer minCrewSize,
+            Integer maxCrewSize,
+            Double minRating,
+            Double maxRating){
+        if(id == null && name == null && planet == null && after == null && before == null &&
+                minSpeed == null && maxSpeed == null && minCrewSize == null && maxCrewSize == null &&
+                minRating == null && maxRating == null) {
+            return statsCache.get(shipType, isUsed);
+        }
+
+        ShipSpecificationsBuilder criteria = createCriteria(id, name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        String key = "stats|" + criteria.key();
+        return queryCache.get(key, () -> slowQueryLog.time(key, () ->
+                ShipStats.of(ShipAggregate.cells(shipRepository.aggregate(criteria.build())), null, null)));
     }
 
     public Ship createShip(String name, String planet,
@@ -75,42 +239,167 @@ public class ShipService {
                            Boolean isUsed, Double speed,
                            Integer crewSize){
 
-        Double rating = calcRating(speed, prodDateLong, isUsed);
+        double rating = ratingCalculator.rating(speed, prodDateLong, isUsed);
+
+        Ship ship = statsCache.create(() ->
+                shipRepository.save(new Ship(name, planet, shiptype, new Date(prodDateLong), isUsed, speed, crewSize, rating)));
+        queryCache.tableChanged();
+        return ship;
+    }
+
+
+    // Rates and inserts ships in one JDBC batch; returns the number of ships created
+    public int createShips(@NotNull List<Ship> ships){
+        if(ships.isEmpty()) {
+            return 0;
+        }
+
+        for (Ship ship : ships) {
+            ship.setRating(ratingCalculator.rating(ship.getSpeed(), ship.getProdDate().getTime(), ship.getUsed()));
+        }
 
-        return shipRepository.save(new Ship(name, planet, shiptype, new Date(prodDateLong), isUsed, speed, crewSize, rating));
+        statsCache.createAll(ships, () -> shipRepository.insertAll(ships));
+        queryCache.tableChanged();
+        return ships.size();
+    }
+
+
+    // Validator for conditional list reads. It changes with every write made through this process and at
+    // least once per query cache TTL, so a matching one is no staler than a cached result
+    public String tableVersion(){
+        return tableVersion.epoch() + "-" + tableVersion.current();
+    }
+
+
+    public long lastModified(){
+        return tableVersion.lastModified();
     }
 
 
     public Ship getShip (Long id){
-        return shipRepository.getById(id);
+        return shipCache.get(id, shipRepository::getById);
     }
 
 
-    public Ship updateShip(@NotNull Ship ship){
-        Double rating = calcRating(ship.getSpeed(), ship.getProdDate().getTime(), ship.getUsed());
-        ship.setRating(rating);
-        return shipRepository.save(ship);
+    // One UPDATE ... WHERE id = ?, preceded by a read for a patch of some rating inputs; returns null when
+    // no such ship exists. A non-null changes.version is
+    // compared in the same statement, and a ship that has moved past it fails with an optimistic locking
+    // exception, so concurrent writers never hold a row lock across the request
+    public Ship updateShip(@NotNull Long id, @NotNull Ship changes){
+        boolean complete = changes.getName() != null && changes.getPlanet() != null &&
+                changes.getShipType() != null && changes.getProdDate() != null &&
+                changes.getUsed() != null && changes.getSpeed() != null && changes.getCrewSize() != null;
+        boolean empty = changes.getName() == null && changes.getPlanet() == null &&
+                changes.getShipType() == null && changes.getProdDate() == null &&
+                changes.getUsed() == null && changes.getSpeed() == null && changes.getCrewSize() == null;
+        if(empty) {
+            Ship ship = getShip(id);
+            if(ship != null && changes.getVersion() != null && !changes.getVersion().equals(ship.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Ship.class, id);
+            }
+            return ship;
+        }
+
+        boolean rerate = changes.getSpeed() != null || changes.getProdDate() != null || changes.getUsed() != null;
+        int updated;
+        if(complete) {
+            changes.setRating(ratingCalculator.rating(changes.getSpeed(), changes.getProdDate().getTime(), changes.getUsed()));
+            updated = statsCache.change(Collections.singleton(id), () -> shipRepository.updateShip(id, changes));
+        } else if(rerate) {
+            updated = updateRerated(id, changes);
+        } else {
+            changes.setRating(null);
+            updated = statsCache.change(Collections.singleton(id), () -> shipRepository.updateShip(id, changes));
+        }
+
+        if(updated == 0) {
+            checkConflict(id, changes.getVersion());
+            return null;
+        }
+        shipCache.invalidate(id);
+        queryCache.tableChanged();
+
+        if(complete) {
+            changes.setId(id);
+            // the new version is only known when the old one was given
+            changes.setVersion(changes.getVersion() == null ? null : changes.getVersion() + 1);
+            return changes;
+        }
+        // only part of the ship was sent, read back the stored result
+        return getShip(id);
+    }
+
+
+    // A patch of some rating inputs: the others are read from the row and the rating computed here, like on
+    // create, as SQL arithmetic would round differently. The row is only written at the version read, and
+    // read again if another writer got in between; with a version from the client, that one must match
+    private int updateRerated(@NotNull Long id, @NotNull Ship changes){
+        Long expected = changes.getVersion();
+        while(true) {
+            Ship stored = shipRepository.findCurrent(id);
+            if(stored == null || expected != null && !expected.equals(stored.getVersion())) {
+                return 0;
+            }
+
+            Double speed = changes.getSpeed() != null ? changes.getSpeed() : stored.getSpeed();
+            Date prodDate = changes.getProdDate() != null ? changes.getProdDate() : stored.getProdDate();
+            Boolean isUsed = changes.getUsed() != null ? changes.getUsed() : stored.getUsed();
+            // a row missing an input keeps its rating, as the recompute job leaves it
+            changes.setRating(speed == null || prodDate == null || isUsed == null
+                    ? null : ratingCalculator.rating(speed, prodDate.getTime(), isUsed));
+            changes.setVersion(stored.getVersion());
+
+            int updated = statsCache.change(Collections.singleton(id), () -> shipRepository.updateShip(id, changes));
+            if(updated > 0 || expected != null) {
+                changes.setVersion(expected);
+                return updated;
+            }
+        }
     }
 
 
-    public void deleteShip(Ship ship){
-        shipRepository.delete(ship);
+    // One DELETE ... WHERE id = ?; returns false when no such ship exists. A non-null version is checked
+    // as in updateShip
+    public boolean deleteShip(@NotNull Long id, Long version){
+        int deleted = statsCache.change(Collections.singleton(id), () -> version == null
+                ? shipRepository.deleteShipById(id)
+                : shipRepository.deleteShipByIdAndVersion(id, version));
+        if(deleted == 0) {
+            checkConflict(id, version);
+            return false;
+        }
+        shipCache.invalidate(id);
+        queryCache.tableChanged();
+        return true;
+    }
+
+
+    // The last committed version, read past the ship cache; null when the ship does not exist
+    public Long currentVersion(@NotNull Long id){
+        Ship ship = shipRepository.findCurrent(id);
+        return ship == null ? null : ship.getVersion();
     }
 
 
-    private Double calcRating(Double speed, Long prodDateLong, Boolean isUsed){
-        double k = isUsed ? 0.5 : 1;
+    // Nothing matched the statement: fails if the ship exists but at another version than the one given
+    private void checkConflict(@NotNull Long id, Long version){
+        if(version != null && shipRepository.existsById(id)) {
+            throw new ObjectOptimisticLockingFailureException(Ship.class, id);
+        }
+    }
 
-        Calendar c = Calendar.getInstance();
-        c.setTimeInMillis(prodDateLong);
-        Double rating = 80 * speed * k / (3019 - c.get(Calendar.YEAR) + 1);
-        rating = Math.round(rating * 100)/100.0;
 
-        return rating;
+    // Sorts by the order's field with id as tie-breaker, so equal keys keep a stable order. NULL keys are
+    // left to the database's ascending order, which puts them first (ShipCursor relies on it): an explicit
+    // NULLS FIRST would be a CASE expression on MySQL, and the ORDER BY could no longer use an index
+    private static Sort uniqueSort(@NotNull ShipOrder order){
+        return order == ShipOrder.ID
+                ? Sort.by("id")
+                : Sort.by(order.getFieldName()).and(Sort.by("id"));
     }
 
 
-    private Specification<Ship> createSpecification(
+    private ShipSpecificationsBuilder createCriteria(
             Long id,
             String name,
             String planet,
@@ -129,12 +418,13 @@ public class ShipService {
             builder.with("id", ":", id);
         }
 
+        String contains = fullTextSearch ? "~" : ":";
         if(name != null){
-            builder.with("name", ":", name);
+            builder.with("name", contains, name);
         }
 
         if(planet != null){
-            builder.with("planet", ":", planet);
+            builder.with("planet", contains, planet);
         }
 
         if (shipType != null){
@@ -177,8 +467,7 @@ public class ShipService {
             builder.with("prodDate", "<", new Date(before));
         }
 
-        Specification<Ship> spec = builder.build();
-        return spec;
+        return builder;
     }
 
 
@@ -0,0 +1,11 @@
+package com.space.service;
+
+import com.space.model.Ship;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface ShipSink {
+
+    void accept(Ship ship) throws IOException;
+}
@@ -6,12 +6,40 @@ import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 public class ShipSpecification implements Specification<Ship> {
 
+    // Converts a criteria value to the Java type of the attribute, so it is bound as a native parameter
+    private static final Map<Class<?>, Function<Object, ?>> CONVERTERS = new HashMap<>();
+
+    static {
+        CONVERTERS.put(Double.class, value -> value instanceof Number
+                ? ((Number) value).doubleValue() : Double.valueOf(value.toString()));
+        CONVERTERS.put(Integer.class, value -> value instanceof Number
+                ? ((Number) value).intValue() : Integer.valueOf(value.toString()));
+        CONVERTERS.put(Long.class, value -> value instanceof Number
+                ? ((Number) value).longValue() : Long.valueOf(value.toString()));
+        CONVERTERS.put(Date.class, value -> value instanceof Date
+                ? value : new Date(((Number) value).longValue()));
+        CONVERTERS.put(Boolean.class, value -> value instanceof Boolean
+                ? value : Boolean.valueOf(value.toString()));
+        CONVERTERS.put(String.class, Object::toString);
+    }
+
+    // MySQL's default LIKE escape, given explicitly so that H2 and other databases agree
+    private static final char LIKE_ESCAPE = '\\';
+
+    // MySQL ngram_token_size; shorter words produce no n-grams
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
     private SearchCriteria criteria;
 
     @Contract(pure = true)
@@ -22,32 +50,85 @@ public class ShipSpecification implements Specification<Ship> {
 
     @Override
     public Predicate toPredicate(Root<Ship> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        Path<Comparable<Object>> path = root.get(criteria.getKey());
+        Class<?> type = path.getJavaType();
+
         switch (criteria.getOperation()) {
             case ">" :
-                if(root.get(criteria.getKey()).getJavaType() == Date.class){
-                    return builder.greaterThanOrEqualTo(
-                            root.<Date>get(criteria.getKey()), (Date)criteria.getValue());
-                } else {
-                    return builder.greaterThanOrEqualTo(
-                            root.<String>get(criteria.getKey()), criteria.getValue().toString());
-                }
+                return builder.greaterThanOrEqualTo(path, typedValue(type, criteria.getValue()));
             case "<" :
-                if(root.get(criteria.getKey()).getJavaType() == Date.class) {
-                    return builder.lessThanOrEqualTo(
-                            root.<Date>get(criteria.getKey()), (Date)criteria.getValue());
-                } else {
-                    return builder.lessThanOrEqualTo(
-                            root.<String>get(criteria.getKey()), criteria.getValue().toString());
-                }
+                return builder.lessThanOrEqualTo(path, typedValue(type, criteria.getValue()));
             case ":" :
-                if(root.get(criteria.getKey()).getJavaType() == String.class){
-                    return builder.like(
-                            root.<String>get(criteria.getKey()), "%" + criteria.getValue() + "%");
+                if(type == String.class){
+                    return builder.like(root.<String>get(criteria.getKey()),
+                            containsPattern(criteria.getValue().toString()), LIKE_ESCAPE);
                 } else {
-                    return builder.equal(root.get(criteria.getKey()), criteria.getValue());
+                    return builder.equal(path, typedValue(type, criteria.getValue()));
                 }
+            case "~" :
+                return fullTextContains(root.get(criteria.getKey()), criteria.getValue().toString(), builder);
         }
 
         return null;
     }
+
+    // The n-gram index narrows the rows, LIKE keeps the exact "contains" semantics
+    private static Predicate fullTextContains(Path<String> path, String text, CriteriaBuilder builder) {
+        Predicate contains = builder.like(path, containsPattern(text), LIKE_ESCAPE);
+        if (!ngramSearchable(text) || text.indexOf('"') >= 0) {
+            return contains;
+        }
+
+        Expression<Double> relevance = builder.function("fulltext_match", Double.class,
+                path, builder.literal("\"" + text + "\""));
+        return builder.and(builder.greaterThan(relevance, 0d), contains);
+    }
+
+    // %text%, with the LIKE wildcards and the escape character in text matched literally
+    static String containsPattern(String text) {
+        StringBuilder pattern = new StringBuilder(text.length() + 2).append('%');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    // The ngram parser splits on whitespace, and a word shorter than the token size yields no n-grams, so the
+    // phrase would match nothing; such terms are matched by LIKE alone
+    static boolean ngramSearchable(String text) {
+        int words = 0;
+        int length = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || Character.isWhitespace(text.charAt(i))) {
+                if (length > 0) {
+                    if (length < NGRAM_TOKEN_SIZE) {
+                        return false;
+                    }
+                    words++;
+                }
+                length = 0;
+            } else {
+                length++;
+            }
+        }
+        return words > 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Comparable<Object> typedValue(Class<?> type, Object value) {
+        if (type.isEnum()) {
+            return (Comparable<Object>) (type.isInstance(value)
+                    ? value : Enum.valueOf((Class<Enum>) type, value.toString()));
+        }
+
+        Function<Object, ?> converter = CONVERTERS.get(type);
+        if (converter == null) {
+            throw new IllegalArgumentException("Unsupported attribute type " + type.getName());
+        }
+        return (Comparable<Object>) converter.apply(value);
+    }
 }
@@ -5,6 +5,7 @@ import org.jetbrains.annotations.Contract;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,6 +23,19 @@ public class ShipSpecificationsBuilder {
         return this;
     }
 
+    // Same filters in any order give the same key
+    public String key(){
+        return params.stream()
+                .map(param -> {
+                    Object value = param.getValue() instanceof Date
+                            ? ((Date) param.getValue()).getTime() : param.getValue();
+                    String text = String.valueOf(value);
+                    return param.getKey() + param.getOperation() + text.length() + ":" + text;
+                })
+                .sorted()
+                .collect(Collectors.joining(";"));
+    }
+
     public Specification<Ship> build(){
         if(params.size() == 0){
             return null;
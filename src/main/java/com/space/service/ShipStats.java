@@ -0,0 +1,126 @@
+package com.space.service;
+
+import com.space.model.ShipType;
+import org.jetbrains.annotations.Contract;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Body of GET /rest/ships/stats: totals, the same per ship type (types without ships are left out)
+// and ships per planet
+public class ShipStats {
+    private Group total;
+    private Map<ShipType, Group> byType = new EnumMap<>(ShipType.class);
+    private Map<String, Long> planets = new TreeMap<>();
+
+    // Stats of the cells matching shipType and isUsed (null matches any)
+    static ShipStats of(ShipAggregate[][] cells, ShipType shipType, Boolean isUsed) {
+        ShipStats stats = new ShipStats();
+        ShipAggregate total = new ShipAggregate();
+        long totalUsed = 0;
+
+        for (int type = 0; type < ShipAggregate.TYPES; type++) {
+            boolean typed = type < ShipType.values().length;
+            if (shipType != null && (!typed || shipType.ordinal() != type)) {
+                continue;
+            }
+            ShipAggregate ofType = new ShipAggregate();
+            long used = 0;
+            for (int u = 0; u < 2; u++) {
+                if (isUsed != null && isUsed != (u == 1)) {
+                    continue;
+                }
+                cells[type][u].addTo(ofType);
+                if (u == 1) {
+                    used = cells[type][u].count;
+                }
+            }
+            ofType.addTo(total);
+            totalUsed += used;
+            if (typed && ofType.count > 0) {
+                stats.byType.put(ShipType.values()[type], new Group(ofType, used));
+            }
+        }
+
+        stats.total = new Group(total, totalUsed);
+        stats.planets.putAll(total.planets);
+        return stats;
+    }
+
+    public Group getTotal() {
+        return total;
+    }
+
+    public Map<ShipType, Group> getByType() {
+        return byType;
+    }
+
+    public Map<String, Long> getPlanets() {
+        return planets;
+    }
+
+    public static class Group {
+        private long count;
+        private long used;
+        private Range speed;
+        private Range rating;
+        private Range crewSize;
+
+        Group(ShipAggregate aggregate, long used) {
+            this.count = aggregate.count;
+            this.used = used;
+            this.speed = new Range(aggregate.speed);
+            this.rating = new Range(aggregate.rating);
+            this.crewSize = new Range(aggregate.crewSize);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getUsed() {
+            return used;
+        }
+
+        public Range getSpeed() {
+            return speed;
+        }
+
+        public Range getRating() {
+            return rating;
+        }
+
+        public Range getCrewSize() {
+            return crewSize;
+        }
+    }
+
+    // min, max and avg are null when no ship has a value
+    public static class Range {
+        private Double min;
+        private Double max;
+        private Double avg;
+
+        @Contract(pure = true)
+        Range(ShipAggregate.Measure measure) {
+            if (measure.count > 0) {
+                this.min = measure.min;
+                this.max = measure.max;
+                this.avg = measure.sum / measure.count;
+            }
+        }
+
+        public Double getMin() {
+            return min;
+        }
+
+        public Double getMax() {
+            return max;
+        }
+
+        public Double getAvg() {
+            return avg;
+        }
+    }
+}
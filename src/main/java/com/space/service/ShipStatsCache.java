@@ -0,0 +1,230 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Fleet-wide stats per (shipType, isUsed) kept in memory, so the unfiltered and per-type variants of
+// GET /rest/ships/stats never touch the table.
+// Every write runs through create/createAll/change and is applied as a delta once it has committed: created
+// ships are added, and updated or deleted ones are taken out as they were before the write (read under a row
+// lock in the write's transaction) and added back as they are after it. Each cell keeps its speed, rating and
+// crewSize values with their counts, so min and max stay exact when a value is taken out.
+// A cell is loaded with a few GROUP BY queries over its ships. Writes hold the shared side of `writes` until
+// their delta is applied and a load holds the exclusive side while it reads one cell, so every write is either
+// in a cell's load or applied to it afterwards, never both. Only the first read waits for a load.
+// Writes by other instances or outside the service are not seen, so the cells are also reloaded in the
+// background once they are older than the query cache's TTL, the same bound TableVersion puts on list results
+// and validators.
+@Component
+public class ShipStatsCache implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ShipStatsCache.class);
+
+    private final ShipRepository shipRepository;
+    private final TransactionTemplate primary;
+    private final long ttlNanos;
+    private final ReadWriteLock writes = new ReentrantReadWriteLock();
+    private final Object load = new Object();
+    private final AtomicLong invalidated = new AtomicLong(1);
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "ship-stats-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // guarded by this; a null cell has not been loaded yet
+    private final ShipAggregate[][] cells = new ShipAggregate[ShipAggregate.TYPES][2];
+    // the invalidate() count the cells were loaded after
+    private volatile long loaded;
+    // System.nanoTime() when the last load of all cells started
+    private volatile long loadedAt;
+
+    @Autowired
+    public ShipStatsCache(ShipRepository shipRepository, PlatformTransactionManager transactionManager,
+                          @Value("${cache.query.ttlSeconds:60}") long ttlSeconds) {
+        this.shipRepository = shipRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        // read-write, so loads and pre-images come from the primary rather than a replica that may lag behind
+        this.primary = new TransactionTemplate(transactionManager);
+    }
+
+    public ShipStats get(ShipType shipType, Boolean isUsed) {
+        if (loaded != invalidated.get()) {
+            synchronized (load) {
+                long target = invalidated.get();
+                if (loaded != target) {
+                    loadAll();
+                    loaded = target;
+                }
+            }
+        } else if (System.nanoTime() - loadedAt >= ttlNanos && refreshing.compareAndSet(false, true)) {
+            refresher.execute(this::refresh);
+        }
+        synchronized (this) {
+            return ShipStats.of(cells, shipType, isUsed);
+        }
+    }
+
+    public Ship create(Supplier<Ship> insert) {
+        writes.readLock().lock();
+        try {
+            Ship ship = insert.get();
+            applied(null, ship);
+            return ship;
+        } finally {
+            writes.readLock().unlock();
+        }
+    }
+
+    public void createAll(List<Ship> ships, Runnable insert) {
+        writes.readLock().lock();
+        try {
+            insert.run();
+            for (Ship ship : ships) {
+                applied(null, ship);
+            }
+        } finally {
+            writes.readLock().unlock();
+        }
+    }
+
+    // Update or delete of the ships with the given ids. The rows are locked and read before the write and
+    // read again after it, in one transaction on the primary; a ship whose version moved is applied as a delta
+    public <T> T change(Collection<Long> ids, Supplier<T> write) {
+        List<Ship[]> changed = new ArrayList<>();
+        writes.readLock().lock();
+        try {
+            T result = primary.execute(status -> {
+                Map<Long, Ship> before = byId(shipRepository.lockAll(ids));
+                T written = write.get();
+                Map<Long, Ship> after = byId(shipRepository.findAllCurrent(ids));
+
+                Set<Long> touched = new HashSet<>(before.keySet());
+                touched.addAll(after.keySet());
+                for (Long id : touched) {
+                    Ship old = before.get(id);
+                    Ship current = after.get(id);
+                    if (old == null || current == null || !Objects.equals(old.getVersion(), current.getVersion())) {
+                        changed.add(new Ship[]{old, current});
+                    }
+                }
+                return written;
+            });
+            for (Ship[] delta : changed) {
+                applied(delta[0], delta[1]);
+            }
+            return result;
+        } finally {
+            writes.readLock().unlock();
+        }
+    }
+
+    // For ships written behind the application's back, such as a reloaded table; the next read loads all
+    // cells again before it answers
+    public void invalidate() {
+        invalidated.incrementAndGet();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    private void refresh() {
+        try {
+            synchronized (load) {
+                loadAll();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Fleet stats refresh failed, the cells are kept until the next one", e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private void loadAll() {
+        long began = System.nanoTime();
+        for (int type = 0; type < ShipAggregate.TYPES; type++) {
+            ShipType shipType = type < ShipType.values().length ? ShipType.values()[type] : null;
+            loadCell(shipType, false);
+            loadCell(shipType, true);
+        }
+        loadedAt = began;
+    }
+
+    private void loadCell(ShipType shipType, boolean isUsed) {
+        Specification<Ship> spec = ofCell(shipType, isUsed);
+        writes.writeLock().lock();
+        try {
+            ShipAggregate cell = primary.execute(status -> ShipAggregate.exact(
+                    shipRepository.valueCounts(spec, "planet"),
+                    shipRepository.valueCounts(spec, "speed"),
+                    shipRepository.valueCounts(spec, "rating"),
+                    shipRepository.valueCounts(spec, "crewSize")));
+            synchronized (this) {
+                cells[shipType == null ? ShipAggregate.TYPES - 1 : shipType.ordinal()][isUsed ? 1 : 0] = cell;
+            }
+        } finally {
+            writes.writeLock().unlock();
+        }
+    }
+
+    // A ship with no isUsed counts as not used, as in ShipAggregate.cell
+    private static Specification<Ship> ofCell(ShipType shipType, boolean isUsed) {
+        return (root, query, builder) -> builder.and(
+                shipType == null ? builder.isNull(root.get("shipType")) : builder.equal(root.get("shipType"), shipType),
+                isUsed ? builder.isTrue(root.get("isUsed"))
+                        : builder.or(builder.isFalse(root.get("isUsed")), builder.isNull(root.get("isUsed"))));
+    }
+
+    // A cell not loaded yet will see the write when it is
+    private synchronized void applied(Ship before, Ship after) {
+        if (before != null) {
+            ShipAggregate cell = ShipAggregate.cell(cells, before.getShipType(), before.getUsed());
+            if (cell != null) {
+                cell.remove(before);
+            }
+        }
+        if (after != null) {
+            ShipAggregate cell = ShipAggregate.cell(cells, after.getShipType(), after.getUsed());
+            if (cell != null) {
+                cell.add(after);
+            }
+        }
+    }
+
+    private static Map<Long, Ship> byId(List<Ship> ships) {
+        Map<Long, Ship> byId = new HashMap<>();
+        for (Ship ship : ships) {
+            byId.put(ship.getId(), ship);
+        }
+        return byId;
+    }
+}
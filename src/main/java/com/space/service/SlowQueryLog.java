@@ -0,0 +1,43 @@
+package com.space.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Times list/count queries. Anything slower than query.slowMillis is logged with its query key (operation,
+// normalized filter set, order and page, as used by the query cache) and counted in ship.query.slow.
+@Component
+public class SlowQueryLog {
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowNanos;
+
+    @Autowired
+    public SlowQueryLog(MeterRegistry meterRegistry,
+                        @Value("${query.slowMillis:200}") long slowMillis) {
+        this.meterRegistry = meterRegistry;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+    }
+
+    public <T> T time(@NotNull String key, @NotNull Supplier<T> query) {
+        long start = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= slowNanos) {
+                String operation = key.substring(0, key.indexOf('|'));
+                log.warn("Slow " + operation + " query: " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms for " + key);
+                meterRegistry.counter("ship.query.slow", "operation", operation).increment();
+            }
+        }
+    }
+}
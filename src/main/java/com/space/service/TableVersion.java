@@ -0,0 +1,54 @@
+package com.space.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts writes to the ship table made through this process, for the query cache keys and the list ETags.
+// The count restarts at boot, so ETags pair it with epoch().
+// Writes by other instances or outside the service are not counted, so the version also moves on once the
+// query cache's TTL has passed without a write: a list validator goes stale no later than a cached result.
+@Component
+public class TableVersion {
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private final long ttlMillis;
+    private volatile long lastModified = epoch;
+
+    @Autowired
+    public TableVersion(@Value("${cache.query.ttlSeconds:60}") long ttlSeconds) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public long current() {
+        if (System.currentTimeMillis() - lastModified >= ttlMillis) {
+            expire();
+        }
+        return version.get();
+    }
+
+    // Wall-clock time of the last write or TTL rollover, or the boot time
+    public long lastModified() {
+        current();
+        return lastModified;
+    }
+
+    public long bump() {
+        long next = version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+        return next;
+    }
+
+    private synchronized void expire() {
+        if (System.currentTimeMillis() - lastModified >= ttlMillis) {
+            bump();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS ship
+(
+    id       BIGINT      NOT NULL AUTO_INCREMENT,
+    name     VARCHAR(50) NULL,
+    planet   VARCHAR(50) NULL,
+    shipType VARCHAR(9)  NULL,
+    prodDate DATE        NULL,
+    isUsed   BOOLEAN     NULL,
+    speed    DOUBLE      NULL,
+    crewSize INT         NULL,
+    rating   DOUBLE      NULL,
+    PRIMARY KEY (id)
+);
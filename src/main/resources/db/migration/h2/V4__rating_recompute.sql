@@ -0,0 +1,9 @@
+-- V3 (n-gram FULLTEXT indexes) is MySQL only; the embedded profile searches name/planet with LIKE
+CREATE TABLE IF NOT EXISTS rating_recompute
+(
+    id        INT     NOT NULL,
+    lastId    BIGINT  NOT NULL,
+    processed BIGINT  NOT NULL,
+    finished  BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
+);
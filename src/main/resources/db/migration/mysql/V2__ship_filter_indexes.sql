@@ -0,0 +1,6 @@
+-- Equality filters first, then the range/sort column; the trailing id keeps (key, id) seek pages index-ordered
+CREATE INDEX idx_ship_type_used_rating ON ship (shipType, isUsed, rating, id);
+CREATE INDEX idx_ship_prod_date ON ship (prodDate, id);
+CREATE INDEX idx_ship_speed ON ship (speed, id);
+CREATE INDEX idx_ship_rating ON ship (rating, id);
+CREATE INDEX idx_ship_crew_size ON ship (crewSize, id);
@@ -0,0 +1,8 @@
+-- n-gram FULLTEXT indexes back the "contains" search on name and planet.
+-- Stopwords are disabled while the indexes are built, so bigrams such as "an" or "in" stay searchable.
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+CREATE FULLTEXT INDEX ft_ship_name ON ship (name) WITH PARSER ngram;
+CREATE FULLTEXT INDEX ft_ship_planet ON ship (planet) WITH PARSER ngram;
+
+SET SESSION innodb_ft_enable_stopword = ON;
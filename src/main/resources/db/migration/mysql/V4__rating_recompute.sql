@@ -0,0 +1,11 @@
+-- Checkpoint of the rating recompute job: one row, advanced after every committed chunk
+CREATE TABLE IF NOT EXISTS rating_recompute
+(
+    id        INT        NOT NULL,
+    lastId    BIGINT(20) NOT NULL,
+    processed BIGINT(20) NOT NULL,
+    finished  BIT(1)     NOT NULL,
+    PRIMARY KEY (id)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARACTER SET = utf8;
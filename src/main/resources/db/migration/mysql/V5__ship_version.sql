@@ -0,0 +1,3 @@
+-- Optimistic lock of ship rows: bumped by every write, compared by conditional updates and deletes
+ALTER TABLE ship
+    ADD COLUMN version BIGINT(20) NOT NULL DEFAULT 0;
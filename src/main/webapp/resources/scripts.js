@@ -1,7 +1,17 @@
-function loadContent(root, suffix, currentPage) {
+let cachedFilters = null;
+let cachedTotal = null;
 
-    let objects = JSON.parse(Get(root + "/rest/ships" + suffix).responseText);
-    let shipsCount = Get(root + "/rest/ships/count" + suffix).responseText;
+function loadContent(root, suffix, currentPage, filters, keepTotal) {
+
+    let url = root + "/rest/ships/page" + suffix;
+    if (keepTotal && filters !== undefined && filters === cachedFilters) {
+        url += (suffix === "" ? "?" : "&") + "total=" + cachedTotal;
+    }
+    let page = JSON.parse(Get(url).responseText);
+    let objects = page.content;
+    let shipsCount = page.total;
+    cachedFilters = filters === undefined ? "" : filters;
+    cachedTotal = shipsCount;
     document.getElementById("count").innerText = "Ships found: " + shipsCount;
     let table = document.getElementById("mainTable");
     table.innerHTML = "";
@@ -119,7 +129,7 @@ function Delete(requestUrl) {
     return Httpreq;
 }
 
-function processSearch(root, currentPage) {
+function processSearch(root, currentPage, keepTotal) {
     let id = document.getElementById("inputId").value;
     let name = document.getElementById("inputName").value;
     let planet = document.getElementById("inputPlanet").value;
@@ -193,6 +203,7 @@ function processSearch(root, currentPage) {
         suffix += "&maxRating=" + ratingMax;
     }
 
+    let filters = suffix;
     suffix += "&pageNumber=" + (+currentPage - 1);
     suffix += "&pageSize=" + +limit;
 
@@ -202,7 +213,7 @@ function processSearch(root, currentPage) {
         order = "date";
     }
     suffix += "&order=" + order.toUpperCase();
-    loadContent(root, suffix, currentPage);
+    loadContent(root, suffix, currentPage, filters, keepTotal);
 
 }
 
@@ -223,7 +234,7 @@ function createPaging(shipsInPage, shipsSummary, currentPage) {
             a.setAttribute("class", "page-link");
             a.setAttribute("href", "#");
             let root = document.getElementById("root").getAttribute("about");
-            a.setAttribute("onclick", "processSearch('" + root + "', " + (i + 1) + ")");
+            a.setAttribute("onclick", "processSearch('" + root + "', " + (i + 1) + ", true)");
             a.appendChild(document.createTextNode(i + 1));
             li.appendChild(a);
             paggingBar.appendChild(li);
@@ -0,0 +1,61 @@
+package com.space.config;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class QueryContextTest {
+
+    private static final String SELECT_SHIP = "select ship0_.id as id1_0_, ship0_.name as name2_0_ from ship ship0_ where ship0_.id=?";
+    private static final String UPDATE_SHIP = "update ship set name=?, rating=? where id=?";
+    private static final String SELECT_PAGE = "select ship0_.id as id1_0_ from ship ship0_ order by ship0_.id asc limit ?";
+
+    @After
+    public void tearDown() {
+        QueryContext.close();
+    }
+
+    //test1
+    @Test
+    public void repeatedStatementIsReportedTest() {
+        SqlStatementInspector inspector = new SqlStatementInspector();
+        QueryContext context = QueryContext.open();
+
+        inspector.inspect(SELECT_PAGE);
+        for (int i = 0; i < 5; i++) {
+            inspector.inspect(SELECT_SHIP);
+        }
+
+        assertEquals(6, context.getStatements());
+        assertEquals(SELECT_SHIP, context.repeated(5));
+        assertNull(context.repeated(6));
+    }
+
+    //test2
+    @Test
+    public void selectThenUpdateByIdIsReportedTest() {
+        SqlStatementInspector inspector = new SqlStatementInspector();
+        QueryContext context = QueryContext.open();
+
+        inspector.inspect(SELECT_SHIP);
+        inspector.inspect(UPDATE_SHIP);
+
+        assertEquals(Collections.singleton("ship"), context.getPreRead());
+    }
+
+    //test3
+    @Test
+    public void updateWithoutPreReadIsNotReportedTest() {
+        SqlStatementInspector inspector = new SqlStatementInspector();
+        QueryContext context = QueryContext.open();
+
+        inspector.inspect(UPDATE_SHIP);
+        inspector.inspect(SELECT_SHIP);
+
+        assertEquals(Collections.emptySet(), context.getPreRead());
+    }
+}
@@ -0,0 +1,147 @@
+package com.space.config;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Two in-memory H2 databases stand in for the primary and the replica; each knows its own name
+public class ReplicaRoutingDataSourceTest {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @Before
+    public void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ReadYourWrites.close();
+        routing.close();
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    //test1
+    @Test
+    public void readOnlyTransactionGoesToReplicaTest() {
+        route(primary, replica, 0);
+
+        assertEquals("replica", readOnly.execute(status -> server()));
+        assertEquals("primary", readWrite.execute(status -> server()));
+        assertEquals("primary", server());
+    }
+
+    //test2
+    @Test
+    public void readAfterWriteGoesToPrimaryTest() {
+        route(primary, replica, 60000);
+        ReadYourWrites.open(0, until -> {
+        });
+
+        assertEquals("replica", readOnly.execute(status -> server()));
+        readWrite.execute(status -> jdbc.update("UPDATE server SET writes = writes + 1"));
+        assertEquals("primary", readOnly.execute(status -> server()));
+    }
+
+    //test3
+    @Test
+    public void unhealthyReplicaIsSkippedTest() {
+        AtomicBoolean down = new AtomicBoolean();
+        route(primary, new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (down.get()) {
+                    throw new SQLException("Connection refused");
+                }
+                return super.getConnection();
+            }
+        }, 0);
+
+        down.set(true);
+        routing.checkReplicas();
+        assertEquals("primary", readOnly.execute(status -> server()));
+
+        down.set(false);
+        routing.checkReplicas();
+        assertEquals("replica", readOnly.execute(status -> server()));
+    }
+
+    //test4
+    @Test
+    public void writePinsOnlyItsClientTest() {
+        route(primary, replica, 60000);
+        AtomicLong cookie = new AtomicLong();
+        ReadYourWrites.open(0, cookie::set);
+        readWrite.execute(status -> jdbc.update("UPDATE server SET writes = writes + 1"));
+        ReadYourWrites.close();
+        assertTrue(cookie.get() > System.currentTimeMillis());
+
+        // a thread without a client, and another client
+        assertEquals("replica", readOnly.execute(status -> server()));
+        ReadYourWrites.open(0, until -> {
+        });
+        assertEquals("replica", readOnly.execute(status -> server()));
+
+        // the writer's next request
+        ReadYourWrites.open(cookie.get(), until -> {
+        });
+        assertEquals("primary", readOnly.execute(status -> server()));
+
+        // further ahead than readYourWritesMillis, so not set by a write
+        ReadYourWrites.open(System.currentTimeMillis() + 3600000, until -> {
+        });
+        assertEquals("replica", readOnly.execute(status -> server()));
+
+        // no client: the write pins nobody
+        ReadYourWrites.close();
+        readWrite.execute(status -> jdbc.update("UPDATE server SET writes = writes + 1"));
+        assertEquals("replica", readOnly.execute(status -> server()));
+    }
+
+    private void route(DataSource primary, DataSource replica, long readYourWritesMillis) {
+        routing = new ReplicaRoutingDataSource(primary, Collections.singletonList(replica), readYourWritesMillis, 60000);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String server() {
+        return jdbc.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS server (name VARCHAR(16), writes INT)");
+        jdbc.update("DELETE FROM server");
+        jdbc.update("INSERT INTO server VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,131 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class BulkCreateShipTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void bulkCreateJsonArrayTest() throws Exception {
+        JsonNode result = postBulk("[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.NORMAL_JSON + "]",
+                status().isOk());
+
+        assertTrue("Возвращается не правильный created при запросе POST /rest/ships/bulk.", result.get("created").asInt() == 2);
+        assertTrue("Возвращаются ошибки при запросе POST /rest/ships/bulk с корректными кораблями.", result.get("errors").size() == 0);
+        assertTrue("Корабли не сохраняются при запросе POST /rest/ships/bulk.", getCount() == testsHelper.getAllShips().size() + 2);
+    }
+
+    //test2
+    @Test
+    public void bulkCreateNdjsonTest() throws Exception {
+        JsonNode result = postBulk(TestsHelper.NORMAL_JSON + "\n" + TestsHelper.NORMAL_JSON + "\n" + TestsHelper.NORMAL_JSON + "\n",
+                status().isOk());
+
+        assertTrue("Возвращается не правильный created при запросе POST /rest/ships/bulk в формате NDJSON.", result.get("created").asInt() == 3);
+        assertTrue("Корабли не сохраняются при запросе POST /rest/ships/bulk в формате NDJSON.", getCount() == testsHelper.getAllShips().size() + 3);
+    }
+
+    //test3
+    @Test
+    public void bulkCreateSkipsInvalidShipsTest() throws Exception {
+        JsonNode result = postBulk("[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.NO_SPEED_JSON + "," +
+                        TestsHelper.NORMAL_JSON + "," + TestsHelper.TOO_BIG_CREW_SIZE_JSON + "]",
+                status().isOk());
+
+        JsonNode errors = result.get("errors");
+        assertTrue("Возвращается не правильный created при запросе POST /rest/ships/bulk с некорректными кораблями.", result.get("created").asInt() == 2);
+        assertTrue("Возвращаются не правильные ошибки при запросе POST /rest/ships/bulk с некорректными кораблями.",
+                errors.size() == 2 &&
+                        errors.get(0).get("index").asInt() == 1 && errors.get(0).get("field").asText().equals("speed") &&
+                        errors.get(1).get("index").asInt() == 3 && errors.get(1).get("field").asText().equals("crewSize"));
+        assertTrue("Некорректные корабли сохраняются при запросе POST /rest/ships/bulk.", getCount() == testsHelper.getAllShips().size() + 2);
+    }
+
+    //test4
+    @Test
+    public void bulkCreateMalformedBodyTest() throws Exception {
+        // the ship before the broken record is created, so the request is not rejected as a whole
+        JsonNode result = postBulk("[" + TestsHelper.NORMAL_JSON + ",{\"name\":", status().isOk());
+
+        assertTrue("Возвращается не правильный created при запросе POST /rest/ships/bulk с некорректным JSON.", result.get("created").asInt() == 1);
+        assertTrue("Возвращается не правильная ошибка при запросе POST /rest/ships/bulk с некорректным JSON.",
+                result.get("errors").get(0).get("index").asInt() == 1);
+        assertTrue("Корабли до некорректного JSON не сохраняются при запросе POST /rest/ships/bulk.",
+                getCount() == testsHelper.getAllShips().size() + 1);
+    }
+
+    //test5
+    @Test
+    public void bulkCreateMalformedBodyNothingCreatedTest() throws Exception {
+        JsonNode result = postBulk("[{\"name\":", status().isBadRequest());
+
+        assertTrue("Возвращается не правильный created при запросе POST /rest/ships/bulk с некорректным JSON.", result.get("created").asInt() == 0);
+        assertTrue("Возвращается не правильная ошибка при запросе POST /rest/ships/bulk с некорректным JSON.",
+                result.get("errors").get(0).get("index").asInt() == 0);
+    }
+
+    private JsonNode postBulk(String content, ResultMatcher expectedStatus) throws Exception {
+        MvcResult result = mockMvc.perform(post("/rest/ships/bulk")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(content))
+                .andExpect(expectedStatus)
+                .andReturn();
+
+        return mapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private int getCount() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/ships/count")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return Integer.parseInt(result.getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
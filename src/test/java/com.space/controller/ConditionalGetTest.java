@@ -0,0 +1,181 @@
+package com.space.controller;
+
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ConditionalGetTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void shipNotModifiedTest() throws Exception {
+        String etag = etag("/rest/ships/1");
+
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/ships/1")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-None-Match", etag))
+                .andReturn().getResponse();
+        assertTrue("При запросе GET /rest/ships/{id} с актуальным If-None-Match код ответа не 304.",
+                response.getStatus() == 304);
+        assertTrue("При ответе 304 на запрос GET /rest/ships/{id} возвращается тело.",
+                response.getContentAsByteArray().length == 0);
+    }
+
+    //test2
+    @Test
+    public void shipModifiedAfterUpdateTest() throws Exception {
+        String etag1 = etag("/rest/ships/1");
+        String etag2 = etag("/rest/ships/2");
+
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/ships/1")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-None-Match", etag1))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/2")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-None-Match", etag2))
+                .andExpect(status().isNotModified());
+    }
+
+    //test3
+    @Test
+    public void listAndCountModifiedAfterDeleteTest() throws Exception {
+        String listEtag = etag("/rest/ships?pageSize=5");
+        String countEtag = etag("/rest/ships/count");
+
+        mockMvc.perform(get("/rest/ships?pageSize=5")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/rest/ships/count")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-None-Match", countEtag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/rest/ships/3")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/ships?pageSize=5")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-None-Match", listEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/count")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-None-Match", countEtag))
+                .andExpect(status().isOk());
+    }
+
+    //test4
+    @Test
+    public void shipNotFoundWithoutEtagTest() throws Exception {
+        String etag = mockMvc.perform(get("/rest/ships/426")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertTrue("При ответе 404 на запрос GET /rest/ships/{id} возвращается ETag.", etag == null);
+    }
+
+    //test5
+    @Test
+    public void etagDependsOnAcceptTest() throws Exception {
+        String json = etag("/rest/ships/1");
+        String smile = mockMvc.perform(get("/rest/ships/1")
+                .accept(MediaType.parseMediaType("application/x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertTrue("ETag совпадает для ответов в разных форматах.", !json.equals(smile));
+    }
+
+    //test6
+    @Test
+    public void ifModifiedSinceTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+        // Last-Modified is sent once the second of the last write has passed
+        Thread.sleep(1000);
+
+        String lastModified = mockMvc.perform(get("/rest/ships/count").accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Last-Modified");
+        assertTrue("При запросе GET /rest/ships/count не возвращается Last-Modified.", lastModified != null);
+
+        mockMvc.perform(get("/rest/ships/count")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/rest/ships/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/count")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Modified-Since", lastModified))
+                .andExpect(status().isOk());
+    }
+
+    //test7
+    @Test
+    public void shipWithoutTableLastModifiedTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+        Thread.sleep(1000);
+
+        String lastModified = mockMvc.perform(get("/rest/ships/2").accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Last-Modified");
+        assertTrue("При запросе GET /rest/ships/{id} возвращается Last-Modified всей таблицы.", lastModified == null);
+    }
+
+    private String etag(String url) throws Exception {
+        String etag = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue("При запросе GET " + url + " не возвращается ETag.", etag != null);
+        return etag;
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
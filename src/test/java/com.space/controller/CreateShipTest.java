@@ -154,6 +154,34 @@ public class CreateShipTest {
         assertTrue("Возвращается не правильный результат при запросе создания корабля с параметром isUsed.", actual.equals(expected));
     }
 
+    //test10
+    @Test
+    public void createShipUnknownShipTypeTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON.replace("MILITARY", "CARGO")))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test11
+    @Test
+    public void createShipMalformedValuesTest() throws Exception {
+        String[] bodies = {
+                TestsHelper.NORMAL_JSON.replace("\"crewSize\": 14", "\"crewSize\": 14.5"),
+                TestsHelper.NORMAL_JSON.replace("\"crewSize\": 14", "\"crewSize\": {\"value\": 14}"),
+                TestsHelper.NORMAL_JSON.replace("\"crewSize\": 14", "\"crewSize\": \"\""),
+                "[]"
+        };
+        for (String body : bodies) {
+            mockMvc.perform(post("/rest/ships/")
+                    .contentType(MediaType.APPLICATION_JSON_UTF8)
+                    .accept(MediaType.APPLICATION_JSON_UTF8)
+                    .content(body))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Autowired
     public void setContext(WebApplicationContext context) {
         this.context = context;
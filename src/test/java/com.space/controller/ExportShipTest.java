@@ -0,0 +1,110 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ExportShipTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void exportAllShipsNdjsonTest() throws Exception {
+        List<ShipInfoTest> actual = readNdjson(export("/rest/ships/export"));
+        List<ShipInfoTest> expected = testsHelper.getAllShips();
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/export.", actual.equals(expected));
+    }
+
+    //test2
+    @Test
+    public void exportWithFiltersNdjsonTest() throws Exception {
+        List<ShipInfoTest> actual = readNdjson(export("/rest/ships/export?planet=ur&isUsed=false"));
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByIsUsed(false,
+                testsHelper.getShipInfosByPlanet("ur", testsHelper.getAllShips()));
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/export с параметрами planet и isUsed.", actual.equals(expected));
+    }
+
+    //test3
+    @Test
+    public void exportWithFiltersCsvTest() throws Exception {
+        String[] lines = export("/rest/ships/export?planet=ur&format=CSV").split("\r\n");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPlanet("ur", testsHelper.getAllShips());
+
+        assertTrue("Возвращается не правильный заголовок при запросе GET /rest/ships/export в формате CSV.",
+                lines[0].equals("id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating"));
+        assertTrue("Возвращается не правильное количество строк при запросе GET /rest/ships/export в формате CSV.",
+                lines.length == expected.size() + 1);
+        assertTrue("Возвращается не правильная строка при запросе GET /rest/ships/export в формате CSV.",
+                lines[1].startsWith(expected.get(0).id + "," + expected.get(0).name + "," + expected.get(0).planet + ","));
+    }
+
+    //test4
+    @Test
+    public void exportWithWrongFormatTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/export?format=XML"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return result.getResponse().getContentAsString();
+    }
+
+    private List<ShipInfoTest> readNdjson(String content) throws Exception {
+        List<ShipInfoTest> ships = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            if (!line.isEmpty()) {
+                assertTrue("Строка выгрузки NDJSON не начинается с '{'.", line.startsWith("{"));
+                ships.add(mapper.readValue(line, ShipInfoTest.class));
+            }
+        }
+        return ships;
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
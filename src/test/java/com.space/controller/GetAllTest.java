@@ -243,6 +243,25 @@ public class GetAllTest {
         assertTrue("Возвращается не правильный результат при запросе GET /rest/ships с параметрами after, before, minCrewSize и maxCrewSize.", actual.equals(expected));
     }
 
+    //test11
+    @Test
+    public void getAllWithFiltersNameShortWords() throws Exception {
+        // single-character words produce no n-grams, the full-text index must not be asked
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships?name=s I&pageSize=10")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 10,
+                testsHelper.getShipInfosByName("s I", testsHelper.getAllShips()));
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships с параметром name из нескольких слов.",
+                !expected.isEmpty() && actual.equals(expected));
+    }
+
     @Autowired
     public void setContext(WebApplicationContext context) {
         this.context = context;
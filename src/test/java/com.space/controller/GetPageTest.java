@@ -0,0 +1,113 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetPageTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getPageWithoutFiltersReturnsContentAndTotal() throws Exception {
+        JsonNode page = getPage("/rest/ships/page");
+
+        List<ShipInfoTest> actual = mapper.convertValue(page.get("content"), typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips());
+        int total = testsHelper.getAllShips().size();
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/page.", actual.equals(expected));
+        assertTrue("Возвращается не правильный total при запросе GET /rest/ships/page.", page.get("total").asInt() == total);
+        assertTrue("Возвращается не правильный pages при запросе GET /rest/ships/page.", page.get("pages").asInt() == (total + 2) / 3);
+        assertTrue("Возвращается не правильный hasNext при запросе GET /rest/ships/page.", page.get("hasNext").asBoolean());
+    }
+
+    //test2
+    @Test
+    public void getPageWithFiltersMatchesGetAllAndCount() throws Exception {
+        JsonNode page = getPage("/rest/ships/page?planet=ur&pageSize=4&pageNumber=1");
+
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByPlanet("ur", testsHelper.getAllShips());
+        List<ShipInfoTest> actual = mapper.convertValue(page.get("content"), typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(1, 4, filtered);
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/page с параметрами planet, pageNumber и pageSize.", actual.equals(expected));
+        assertTrue("Возвращается не правильный total при запросе GET /rest/ships/page с параметрами planet, pageNumber и pageSize.", page.get("total").asInt() == filtered.size());
+    }
+
+    //test3
+    @Test
+    public void getPageWithKnownTotalSkipsCount() throws Exception {
+        JsonNode page = getPage("/rest/ships/page?pageNumber=2&total=40");
+
+        List<ShipInfoTest> actual = mapper.convertValue(page.get("content"), typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(2, 3, testsHelper.getAllShips());
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/page с параметром total.", actual.equals(expected));
+        assertTrue("Возвращается не правильный total при запросе GET /rest/ships/page с параметром total.", page.get("total").asInt() == 40);
+    }
+
+    //test4
+    @Test
+    public void getPageWithNegativeTotal() throws Exception {
+        mockMvc.perform(get("/rest/ships/page?total=-1")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode getPage(String url) throws Exception {
+        ResultActions resultActions = mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        return mapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,181 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetSliceTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private JdbcTemplate jdbcTemplate;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getSliceFirstSliceMatchesFirstPage() throws Exception {
+        JsonNode slice = getSlice("/rest/ships/seek");
+
+        List<ShipInfoTest> actual = mapper.convertValue(slice.get("content"), typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips());
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/seek.", actual.equals(expected));
+        assertTrue("Не возвращается cursor следующей страницы при запросе GET /rest/ships/seek.", slice.get("next").isTextual());
+    }
+
+    //test2
+    @Test
+    public void getSliceWalkAllOrders() throws Exception {
+        for (ShipOrder order : ShipOrder.values()) {
+            List<ShipInfoTest> actual = new ArrayList<>();
+            String next = null;
+            do {
+                JsonNode slice = getSlice("/rest/ships/seek?pageSize=7&order=" + order +
+                        (next == null ? "" : "&cursor=" + next));
+                actual.addAll(mapper.convertValue(slice.get("content"), typeReference));
+                next = slice.get("next").isNull() ? null : slice.get("next").asText();
+            } while (next != null);
+
+            List<ShipInfoTest> expected = new ArrayList<>(testsHelper.getAllShips());
+            expected.sort(seekOrder(order));
+
+            assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/seek с параметром order=" + order + ".",
+                    actual.equals(expected));
+        }
+    }
+
+    //test3
+    @Test
+    public void getSliceWithFiltersAndOrder() throws Exception {
+        JsonNode first = getSlice("/rest/ships/seek?planet=ur&order=RATING&pageSize=2");
+        JsonNode second = getSlice("/rest/ships/seek?planet=ur&order=RATING&pageSize=2&cursor=" + first.get("next").asText());
+
+        List<ShipInfoTest> actual = mapper.convertValue(second.get("content"), typeReference);
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByPlanet("ur", testsHelper.getAllShips());
+        filtered.sort(seekOrder(ShipOrder.RATING));
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(1, 2, filtered);
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/seek с параметрами planet, order и cursor.", actual.equals(expected));
+    }
+
+    //test4
+    @Test
+    public void getSliceWithForeignCursor() throws Exception {
+        JsonNode first = getSlice("/rest/ships/seek?order=SPEED");
+
+        mockMvc.perform(get("/rest/ships/seek?order=RATING&cursor=" + first.get("next").asText())
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rest/ships/seek?cursor=not-a-cursor")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test5
+    @Test
+    public void getSliceWalksNullKeys() throws Exception {
+        // with pageSize=2 the first slice ends on a NULL key (ship 3) and the second starts with one (ship 8)
+        jdbcTemplate.update("UPDATE ship SET speed = NULL, rating = NULL WHERE id IN (1, 3, 8)");
+        List<ShipInfoTest> ships = new ArrayList<>(testsHelper.getAllShips());
+        for (ShipInfoTest ship : ships) {
+            if (ship.id == 1 || ship.id == 3 || ship.id == 8) {
+                ship.speed = null;
+                ship.rating = null;
+            }
+        }
+
+        for (ShipOrder order : new ShipOrder[]{ShipOrder.SPEED, ShipOrder.RATING}) {
+            List<ShipInfoTest> actual = new ArrayList<>();
+            String next = null;
+            do {
+                JsonNode slice = getSlice("/rest/ships/seek?pageSize=2&order=" + order +
+                        (next == null ? "" : "&cursor=" + next));
+                actual.addAll(mapper.convertValue(slice.get("content"), typeReference));
+                next = slice.get("next").isNull() ? null : slice.get("next").asText();
+            } while (next != null);
+
+            List<ShipInfoTest> expected = new ArrayList<>(ships);
+            expected.sort(seekOrder(order));
+
+            assertTrue("Корабли без значения " + order + " теряются при запросе GET /rest/ships/seek с параметром cursor.",
+                    actual.equals(expected));
+        }
+    }
+
+    // ORDER BY key, id as used by the seek query, NULL keys first
+    private Comparator<ShipInfoTest> seekOrder(ShipOrder order) {
+        Comparator<ShipInfoTest> byKey;
+        if (order == ShipOrder.SPEED) {
+            byKey = Comparator.comparing(ship -> ship.speed, Comparator.nullsFirst(Comparator.naturalOrder()));
+        } else if (order == ShipOrder.DATE) {
+            byKey = Comparator.comparing(ship -> ship.prodDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+        } else if (order == ShipOrder.RATING) {
+            byKey = Comparator.comparing(ship -> ship.rating, Comparator.nullsFirst(Comparator.naturalOrder()));
+        } else {
+            byKey = Comparator.comparing(ship -> ship.id);
+        }
+        return byKey.thenComparing(ship -> ship.id);
+    }
+
+    private JsonNode getSlice(String url) throws Exception {
+        ResultActions resultActions = mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        return mapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+}
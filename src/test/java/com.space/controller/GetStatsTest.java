@@ -0,0 +1,257 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import com.space.service.ShipStatsCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetStatsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipStatsCache statsCache;
+    private ShipRepository shipRepository;
+    private PlatformTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        // test.sql reloaded the table behind the aggregates' back
+        statsCache.invalidate();
+    }
+
+    //test1
+    @Test
+    public void statsWithoutFiltersTest() throws Exception {
+        JsonNode stats = stats("/rest/ships/stats");
+        List<ShipInfoTest> ships = testsHelper.getAllShips();
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/stats.",
+                matches(stats.get("total"), ships));
+        for (ShipType type : ShipType.values()) {
+            assertTrue("Возвращается не правильный результат по типу " + type + " при запросе GET /rest/ships/stats.",
+                    matches(stats.get("byType").get(type.name()), testsHelper.getShipInfosByShipType(type, ships)));
+        }
+        long mars = ships.stream().filter(ship -> ship.planet.equals("Mars")).count();
+        assertTrue("Возвращается не правильное количество кораблей по планетам при запросе GET /rest/ships/stats.",
+                stats.get("planets").get("Mars").asLong() == mars);
+    }
+
+    //test2
+    @Test
+    public void statsByShipTypeAndIsUsedTest() throws Exception {
+        JsonNode stats = stats("/rest/ships/stats?shipType=MILITARY&isUsed=false");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByIsUsed(false,
+                testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips()));
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/stats с параметрами shipType и isUsed.",
+                matches(stats.get("total"), expected) && stats.get("byType").size() == 1);
+    }
+
+    //test3
+    @Test
+    public void statsWithFiltersTest() throws Exception {
+        JsonNode stats = stats("/rest/ships/stats?minSpeed=0.5&planet=ur");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPlanet("ur",
+                testsHelper.getShipInfosByMinSpeed(0.5, testsHelper.getAllShips()));
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/stats с параметрами minSpeed и planet.",
+                matches(stats.get("total"), expected));
+    }
+
+    //test4
+    @Test
+    public void statsFollowCreateAndDeleteTest() throws Exception {
+        int ships = testsHelper.getAllShips().size();
+        stats("/rest/ships/stats");
+
+        MvcResult created = mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.CORRECT_COMPUTE_RATING_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode stats = stats("/rest/ships/stats");
+        assertTrue("Статистика не учитывает созданный корабль.",
+                stats.get("total").get("count").asLong() == ships + 1 &&
+                        stats.get("total").get("crewSize").get("min").asDouble() == 40);
+
+        long id = mapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(delete("/rest/ships/" + id)).andExpect(status().isOk());
+        stats = stats("/rest/ships/stats");
+        assertTrue("Статистика не учитывает удалённый корабль.",
+                matches(stats.get("total"), testsHelper.getAllShips()));
+    }
+
+    //test5
+    @Test
+    public void statsRebuiltAfterTtlTest() throws Exception {
+        ShipStatsCache cache = new ShipStatsCache(shipRepository, transactionManager, 1);
+        try {
+            long ships = cache.get(null, null).getTotal().getCount();
+
+            // written behind the service, as another instance would
+            jdbcTemplate.update("INSERT INTO ship (name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) " +
+                    "VALUES ('Ghost', 'Earth', 'MERCHANT', '3010-01-01', 0, 0.5, 10, 4.44)");
+            assertTrue("Статистика перестраивается при каждом запросе.", cache.get(null, null).getTotal().getCount() == ships);
+
+            // the first read after the TTL starts the rebuild in the background
+            Thread.sleep(1100);
+            cache.get(null, null);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (cache.get(null, null).getTotal().getCount() != ships + 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue("Статистика не перестраивается после истечения TTL.",
+                    cache.get(null, null).getTotal().getCount() == ships + 1);
+        } finally {
+            cache.destroy();
+        }
+    }
+
+    //test6
+    @Test
+    public void statsFollowUpdatesTest() throws Exception {
+        List<ShipInfoTest> ships = testsHelper.getAllShips();
+        ShipInfoTest fastest = ships.stream().max(Comparator.comparingDouble(ship -> ship.speed)).get();
+        ShipInfoTest other = ships.stream().filter(ship -> ship != fastest).findFirst().get();
+        ShipType otherType = other.shipType == ShipType.MILITARY ? ShipType.MERCHANT : ShipType.MILITARY;
+        stats("/rest/ships/stats");
+
+        // the fleet's max speed is taken back out
+        update(fastest.id, "{\"speed\":0.01}");
+        assertSame("после уменьшения максимальной скорости");
+
+        // the ship moves to another (shipType, isUsed) cell and planet
+        update(other.id, "{\"shipType\":\"" + otherType + "\",\"isUsed\":" + !other.isUsed +
+                ",\"planet\":\"Pluto\"}");
+        assertSame("после смены типа, isUsed и планеты");
+
+        mockMvc.perform(delete("/rest/ships/" + other.id)).andExpect(status().isOk());
+        assertSame("после удаления корабля");
+    }
+
+    private void update(long id, String json) throws Exception {
+        mockMvc.perform(post("/rest/ships/" + id)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(json))
+                .andExpect(status().isOk());
+    }
+
+    // The in-memory stats against the GROUP BY over the table, which any filter falls back to
+    private void assertSame(String after) throws Exception {
+        JsonNode cached = stats("/rest/ships/stats");
+        JsonNode queried = stats("/rest/ships/stats?minCrewSize=0");
+
+        boolean same = sameGroup(cached.get("total"), queried.get("total")) &&
+                cached.get("planets").equals(queried.get("planets")) &&
+                cached.get("byType").size() == queried.get("byType").size();
+        for (ShipType type : ShipType.values()) {
+            JsonNode group = cached.get("byType").get(type.name());
+            same &= group == null ? queried.get("byType").get(type.name()) == null
+                    : sameGroup(group, queried.get("byType").get(type.name()));
+        }
+        assertTrue("Статистика из памяти расходится с запросом к таблице " + after + ": " + cached + " != " + queried,
+                same);
+    }
+
+    private static boolean sameGroup(JsonNode cached, JsonNode queried) {
+        if (queried == null || cached.get("count").asLong() != queried.get("count").asLong() ||
+                cached.get("used").asLong() != queried.get("used").asLong()) {
+            return false;
+        }
+        for (String measure : new String[]{"speed", "rating", "crewSize"}) {
+            JsonNode a = cached.get(measure);
+            JsonNode b = queried.get(measure);
+            if (a.get("min").asDouble() != b.get("min").asDouble() || a.get("max").asDouble() != b.get("max").asDouble() ||
+                    Math.abs(a.get("avg").asDouble() - b.get("avg").asDouble()) >= 1e-9) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private JsonNode stats(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn();
+        return mapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static boolean matches(JsonNode group, List<ShipInfoTest> ships) {
+        double speedMax = ships.stream().mapToDouble(ship -> ship.speed).max().orElse(0);
+        double ratingMin = ships.stream().mapToDouble(ship -> ship.rating).min().orElse(0);
+        double crewAvg = ships.stream().mapToInt(ship -> ship.crewSize).average().orElse(0);
+        long used = ships.stream().filter(ship -> ship.isUsed).count();
+
+        return group.get("count").asLong() == ships.size() &&
+                group.get("used").asLong() == used &&
+                group.get("speed").get("max").asDouble() == speedMax &&
+                group.get("rating").get("min").asDouble() == ratingMin &&
+                Math.abs(group.get("crewSize").get("avg").asDouble() - crewAvg) < 1e-9;
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setStatsCache(ShipStatsCache statsCache) {
+        this.statsCache = statsCache;
+    }
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+}
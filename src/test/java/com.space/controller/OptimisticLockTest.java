@@ -0,0 +1,206 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class OptimisticLockTest {
+
+    private static final int WRITERS = 8;
+    private static final int INCREMENTS = 25;
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void updateWithStaleIfMatchTest() throws Exception {
+        String etag = read("/rest/ships/1").getHeader("ETag");
+
+        String next = mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Match", etag)
+                .content("{\"name\":\"First\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue("ETag не меняется после обновления корабля.", next != null && !next.equals(etag));
+
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Match", etag)
+                .content("{\"name\":\"Second\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        String name = mapper.readTree(read("/rest/ships/1").getContentAsString()).get("name").asText();
+        assertTrue("Обновление с устаревшим If-Match изменило корабль.", name.equals("First"));
+        assertTrue("ETag после обновления не совпадает с ETag при запросе GET /rest/ships/{id}.",
+                next.equals(read("/rest/ships/1").getHeader("ETag")));
+    }
+
+    //test2
+    @Test
+    public void updateWithStaleBodyVersionTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"First\",\"version\":0}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/rest/ships/2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Second\",\"version\":0}"))
+                .andExpect(status().isConflict());
+    }
+
+    //test3
+    @Test
+    public void deleteWithIfMatchTest() throws Exception {
+        String etag = read("/rest/ships/3").getHeader("ETag");
+        mockMvc.perform(post("/rest/ships/3")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/rest/ships/3").header("If-Match", etag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/rest/ships/3").header("If-Match", read("/rest/ships/3").getHeader("ETag")))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/ships/3").header("If-Match", etag))
+                .andExpect(status().isNotFound());
+    }
+
+    //test4
+    @Test
+    public void concurrentIncrementsTest() throws Exception {
+        int initial = mapper.readTree(read("/rest/ships/4").getContentAsString()).get("crewSize").asInt();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                done.add(writers.submit(() -> {
+                    for (int j = 0; j < INCREMENTS; j++) {
+                        while (!increment(4)) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            writers.shutdown();
+        }
+
+        int crewSize = mapper.readTree(read("/rest/ships/4").getContentAsString()).get("crewSize").asInt();
+        assertTrue("При параллельных обновлениях с If-Match потеряны изменения (конфликтов: " + conflicts + ").",
+                crewSize == initial + WRITERS * INCREMENTS);
+    }
+
+    //test5
+    @Test
+    public void updateWithIfMatchListTest() throws Exception {
+        String etag = read("/rest/ships/5").getHeader("ETag");
+
+        mockMvc.perform(post("/rest/ships/5")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Match", "\"998-0\", " + etag + ", \"999-0\"")
+                .content("{\"name\":\"First\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/rest/ships/5")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Match", "\"998-0\", " + etag)
+                .content("{\"name\":\"Second\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    //test6
+    @Test
+    public void ifMatchAnyTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/6")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Match", "*")
+                .content("{\"name\":\"First\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/ships/6").header("If-Match", "*"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/rest/ships/6").header("If-Match", "*"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(post("/rest/ships/6")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Match", "*")
+                .content("{\"name\":\"Second\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    // Read, add one crew member, write back under If-Match; false when another writer got there first
+    private boolean increment(long id) throws Exception {
+        MockHttpServletResponse ship = read("/rest/ships/" + id);
+        int crewSize = mapper.readTree(ship.getContentAsString()).get("crewSize").asInt();
+
+        int status = mockMvc.perform(post("/rest/ships/" + id)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-Match", ship.getHeader("ETag"))
+                .content("{\"crewSize\":" + (crewSize + 1) + "}"))
+                .andReturn().getResponse().getStatus();
+        assertTrue("При обновлении с If-Match возвращается код " + status + ".", status == 200 || status == 412);
+        return status == 200;
+    }
+
+    private MockHttpServletResponse read(String url) throws Exception {
+        return mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
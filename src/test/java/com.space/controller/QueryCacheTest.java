@@ -0,0 +1,137 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.service.ShipQueryCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The rest of the suite runs with the query cache disabled (see test.properties)
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "cache.query.maxShips=" + QueryCacheTest.MAX_SHIPS)
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class QueryCacheTest {
+
+    static final int MAX_SHIPS = 50;
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipQueryCache queryCache;
+    private MeterRegistry meterRegistry;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        // test.sql has just reloaded the table behind the cache's back
+        queryCache.tableChanged();
+    }
+
+    //test1
+    @Test
+    public void listNotStaleAfterUpdateTest() throws Exception {
+        double hits = gets("hit");
+
+        read("/rest/ships?pageSize=5");
+        read("/rest/ships?pageSize=5");
+        assertTrue("Повторный запрос GET /rest/ships не учитывается как попадание в кэш.", gets("hit") == hits + 1);
+
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        String name = mapper.readTree(read("/rest/ships?pageSize=5")).get(0).get("name").asText();
+        assertTrue("После обновления корабля GET /rest/ships возвращает список из кэша.", name.equals("Renamed"));
+    }
+
+    //test2
+    @Test
+    public void countNotStaleAfterDeleteTest() throws Exception {
+        long count = Long.parseLong(read("/rest/ships/count"));
+        read("/rest/ships/count");
+
+        mockMvc.perform(delete("/rest/ships/1")).andExpect(status().isOk());
+
+        assertTrue("После удаления корабля GET /rest/ships/count возвращает число из кэша.",
+                Long.parseLong(read("/rest/ships/count")) == count - 1);
+    }
+
+    //test3
+    @Test
+    public void tableChangedInvalidatesTest() {
+        Integer first = queryCache.get("key", () -> 1);
+        Integer cached = queryCache.get("key", () -> 2);
+        queryCache.tableChanged();
+        Integer reloaded = queryCache.get("key", () -> 3);
+
+        assertTrue("Результат не сохраняется в кэше запросов.", first == 1 && cached == 1);
+        assertTrue("tableChanged() не сбрасывает кэш запросов.", reloaded == 3);
+    }
+
+    //test4
+    @Test
+    public void sizeCapHoldsTest() throws Exception {
+        String first = read("/rest/ships?pageSize=20");
+        for (ShipOrder order : ShipOrder.values()) {
+            for (int page = 0; page < 2; page++) {
+                read("/rest/ships?pageSize=20&order=" + order + "&pageNumber=" + page);
+            }
+        }
+
+        long weight = queryCache.weight();
+        assertTrue("Кэш запросов хранит " + weight + " кораблей при ограничении " + MAX_SHIPS + ".",
+                weight > 0 && weight <= MAX_SHIPS);
+        assertTrue("После вытеснения из кэша GET /rest/ships возвращает другой результат.",
+                read("/rest/ships?pageSize=20").equals(first));
+    }
+
+    private String read(String url) throws Exception {
+        return mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "shipQuery").tag("result", result).functionCounter().count();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setQueryCache(ShipQueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+}
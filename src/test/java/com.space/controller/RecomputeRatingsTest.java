@@ -0,0 +1,164 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.Ship;
+import com.space.repository.ShipRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class RecomputeRatingsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private JdbcTemplate jdbcTemplate;
+    private ShipRepository shipRepository;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void recomputeRestoresRatingsTest() throws Exception {
+        jdbcTemplate.update("UPDATE ship SET rating = 0");
+
+        mockMvc.perform(post("/rest/admin/ratings/recompute"))
+                .andExpect(status().isAccepted());
+        JsonNode jobStatus = awaitJob();
+
+        assertTrue("Возвращается не правильный статус при запросе GET /rest/admin/ratings/recompute.",
+                jobStatus.get("finished").asBoolean() && jobStatus.get("error").isNull());
+        assertTrue("Возвращается не правильный processed при запросе GET /rest/admin/ratings/recompute.",
+                jobStatus.get("processed").asInt() == testsHelper.getAllShips().size());
+
+        MvcResult result = mockMvc.perform(get("/rest/ships?pageSize=100"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<ShipInfoTest> actual = mapper.readValue(result.getResponse().getContentAsString(), typeReference);
+
+        assertTrue("Рейтинги не пересчитываются при запросе POST /rest/admin/ratings/recompute.",
+                actual.equals(testsHelper.getAllShips()));
+    }
+
+    //test2
+    @Test
+    public void recomputeResumesFromCheckpointTest() throws Exception {
+        jdbcTemplate.update("UPDATE ship SET rating = 0");
+        jdbcTemplate.update("INSERT INTO rating_recompute (id, lastId, processed, finished) VALUES (1, 20, 20, 0)");
+
+        mockMvc.perform(post("/rest/admin/ratings/recompute"))
+                .andExpect(status().isAccepted());
+        JsonNode jobStatus = awaitJob();
+
+        assertTrue("Возвращается не правильный processed при продолжении POST /rest/admin/ratings/recompute.",
+                jobStatus.get("processed").asInt() == testsHelper.getAllShips().size());
+        assertTrue("Пересчитываются корабли до контрольной точки при запросе POST /rest/admin/ratings/recompute.",
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ship WHERE id <= 20 AND rating = 0", Integer.class) == 20 &&
+                        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ship WHERE id > 20 AND rating = 0", Integer.class) == 0);
+    }
+
+    //test3
+    @Test
+    public void ratingOfChangedShipNotOverwrittenTest() throws Exception {
+        List<Ship> chunk = shipRepository.findRatingInputs(0, 1);
+
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"speed\":0.5}"))
+                .andExpect(status().isOk());
+        double rating = jdbcTemplate.queryForObject("SELECT rating FROM ship WHERE id = 1", Double.class);
+
+        chunk.get(0).setRating(0.0);
+        int[] written = shipRepository.updateRatings(chunk);
+
+        assertTrue("Пересчёт рейтинга перезаписывает корабль, изменённый после чтения.",
+                written[0] == 0 &&
+                        jdbcTemplate.queryForObject("SELECT rating FROM ship WHERE id = 1", Double.class) == rating);
+    }
+
+    //test4
+    @Test
+    public void unchangedRatingsKeepVersionTest() throws Exception {
+        String etag = mockMvc.perform(get("/rest/ships/1").accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post("/rest/admin/ratings/recompute"))
+                .andExpect(status().isAccepted());
+        awaitJob();
+
+        assertTrue("Пересчёт рейтингов меняет версию кораблей с прежним рейтингом.",
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ship WHERE version <> 0", Integer.class) == 0);
+        mockMvc.perform(get("/rest/ships/1")
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private JsonNode awaitJob() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            MvcResult result = mockMvc.perform(get("/rest/admin/ratings/recompute"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode jobStatus = mapper.readTree(result.getResponse().getContentAsString());
+            if (!jobStatus.get("running").asBoolean()) {
+                return jobStatus;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Пересчёт рейтингов не завершился за 10 секунд.");
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+}
@@ -0,0 +1,107 @@
+package com.space.controller;
+
+import com.space.config.MyWebAppInit;
+import com.space.config.RequestMetricsFilter;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class RequestMetricsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean(RequestMetricsFilter.class))
+                .build();
+    }
+
+    //test1
+    @Test
+    public void requestsAreTimedByEndpointAndStatusTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/1000")).andExpect(status().isNotFound());
+
+        String metrics = scrape();
+
+        assertTrue("Не учитывается успешный запрос GET /rest/ships/{id} в /metrics.",
+                metrics.contains("http_server_requests_seconds_count{endpoint=\"getShip\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/rest/ships/{id}\",}"));
+        assertTrue("Не учитывается ошибка запроса GET /rest/ships/{id} в /metrics.",
+                metrics.contains("http_server_requests_seconds_count{endpoint=\"getShip\",method=\"GET\",outcome=\"CLIENT_ERROR\",status=\"404\",uri=\"/rest/ships/{id}\",}"));
+        assertTrue("Не публикуются перцентили запроса GET /rest/ships/{id} в /metrics.",
+                metrics.contains("http_server_requests_seconds{endpoint=\"getShip\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/rest/ships/{id}\",quantile=\"0.99\",}"));
+    }
+
+    //test2
+    @Test
+    public void payloadSizesAreRecordedTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        String metrics = scrape();
+
+        assertTrue("Не учитывается размер запроса POST /rest/ships в /metrics.",
+                sizeSum(metrics, "http_server_request_size_bytes_sum{endpoint=\"createShip\"") > 0);
+        assertTrue("Не учитывается размер ответа POST /rest/ships в /metrics.",
+                sizeSum(metrics, "http_server_response_size_bytes_sum{endpoint=\"createShip\"") > 0);
+    }
+
+    //test3
+    @Test
+    public void statementsPerRequestAreRecordedTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/count?planet=ar")).andExpect(status().isOk());
+
+        String metrics = scrape();
+
+        assertTrue("Не учитывается число SQL-запросов GET /rest/ships/count в /metrics.",
+                sizeSum(metrics, "http_server_requests_statements_sum{endpoint=\"getCount\"") >= 1);
+    }
+
+    private String scrape() throws Exception {
+        MvcResult result = mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return result.getResponse().getContentAsString();
+    }
+
+    private static double sizeSum(String metrics, String prefix) {
+        for (String line : metrics.split("\n")) {
+            if (line.startsWith(prefix)) {
+                return Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+            }
+        }
+        return -1;
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,136 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.service.ShipCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The rest of the suite runs with the ship cache disabled (see test.properties)
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "cache.ship.maxSize=100")
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ShipCacheTest {
+
+    private static final long SHIPS = 40;
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipCache shipCache;
+    private MeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        // test.sql has just reloaded the table behind the cache's back
+        for (long id = 1; id <= SHIPS + 1; id++) {
+            shipCache.invalidate(id);
+        }
+    }
+
+    //test1
+    @Test
+    public void getAfterUpdateNotStaleTest() throws Exception {
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        read(1);
+        read(1);
+        assertTrue("Первый запрос GET /rest/ships/{id} не учитывается как промах кэша.", gets("miss") == misses + 1);
+        assertTrue("Повторный запрос GET /rest/ships/{id} не учитывается как попадание в кэш.", gets("hit") == hits + 1);
+
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        String name = mapper.readTree(read(1)).get("name").asText();
+        assertTrue("После обновления корабля GET /rest/ships/{id} возвращает корабль из кэша.", name.equals("Renamed"));
+    }
+
+    //test2
+    @Test
+    public void getAfterDeleteNotFoundTest() throws Exception {
+        read(2);
+        read(2);
+
+        mockMvc.perform(delete("/rest/ships/2")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/ships/2").accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound());
+    }
+
+    //test3
+    @Test
+    public void missingShipNotCachedTest() throws Exception {
+        long id = SHIPS + 1;
+        mockMvc.perform(get("/rest/ships/" + id).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound());
+
+        // written behind the service, as another instance would
+        jdbcTemplate.update("INSERT INTO ship (id, name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) " +
+                "VALUES (?, 'Ghost', 'Earth', 'MERCHANT', '3010-01-01', 0, 0.5, 10, 4.44)", id);
+
+        String name = mapper.readTree(read(id)).get("name").asText();
+        assertTrue("Отсутствующий корабль сохраняется в кэше.", name.equals("Ghost"));
+    }
+
+    private String read(long id) throws Exception {
+        return mockMvc.perform(get("/rest/ships/" + id).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "ship").tag("result", result).functionCounter().count();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setShipCache(ShipCache shipCache) {
+        this.shipCache = shipCache;
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+}
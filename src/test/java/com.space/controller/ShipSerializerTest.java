@@ -0,0 +1,68 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.WebConfig;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+// ShipSerializer must write the same bytes as the reflective field serializer it replaced
+public class ShipSerializerTest {
+
+    private ObjectMapper mapper;
+    private ObjectMapper reflective;
+
+    @Before
+    public void setup() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new WebConfig().configureMessageConverters(converters);
+        mapper = ((MappingJackson2HttpMessageConverter) converters.get(0)).getObjectMapper();
+
+        reflective = new ObjectMapper();
+        reflective.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        reflective.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+    }
+
+    //test1
+    @Test
+    public void sameJsonAsFieldSerializerTest() throws Exception {
+        Ship ship = new Ship("Orion \"III\"", "Марс", ShipType.MERCHANT, new Date(32367628329660L), true, 0.82, 617, 1.31);
+        ship.setId(1L);
+
+        assertEquals(reflective.writeValueAsString(ship), mapper.writeValueAsString(ship));
+    }
+
+    //test2
+    @Test
+    public void sameJsonForNullFieldsTest() throws Exception {
+        List<Ship> ships = Arrays.asList(new Ship(), new Ship("Hermes", null, null, null, null, 1e-7, null, null));
+
+        assertEquals(reflective.writeValueAsString(ships), mapper.writeValueAsString(ships));
+    }
+
+    //test3
+    @Test
+    public void hundredthsFormattedAsDoubleToStringTest() {
+        char[] buffer = new char[16];
+        for (long hundredths = 1; hundredths <= 1000000; hundredths++) {
+            double value = hundredths / 100.0;
+            int length = ShipSerializer.formatHundredths(value, buffer);
+            assertEquals(Double.toString(value), new String(buffer, 0, length));
+        }
+        assertEquals(-1, ShipSerializer.formatHundredths(0.125, buffer));
+        assertEquals(-1, ShipSerializer.formatHundredths(0.0, buffer));
+        assertEquals(-1, ShipSerializer.formatHundredths(1e7, buffer));
+    }
+}
@@ -22,6 +22,9 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
 import static org.springframework.test.util.AssertionErrors.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -214,6 +217,31 @@ public class UpdateShipTest {
         assertTrue("При запросе POST /rest/ships/{id} корабль должен обновляться и рейтинг пересчитываться", actual.equals(expected));
     }
 
+    //test12
+    @Test
+    public void updateShipRatingTieTest() throws Exception {
+        // 80 * 0.09 * 0.5 / 16 = 0.225 exactly, but 0.22499... as a double, which the rating rounds to 0.22
+        long prodDate = new GregorianCalendar(3004, Calendar.JUNE, 1).getTimeInMillis();
+
+        ResultActions complete = mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Tie\",\"planet\":\"Mars\",\"shipType\":\"MERCHANT\",\"prodDate\":" + prodDate +
+                        ",\"isUsed\":true,\"speed\":0.09,\"crewSize\":10}"))
+                .andExpect(status().isOk());
+        ResultActions partial = mockMvc.perform(post("/rest/ships/2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"prodDate\":" + prodDate + ",\"isUsed\":true,\"speed\":0.09}"))
+                .andExpect(status().isOk());
+
+        ShipInfoTest completeShip = mapper.readValue(complete.andReturn().getResponse().getContentAsString(), ShipInfoTest.class);
+        ShipInfoTest partialShip = mapper.readValue(partial.andReturn().getResponse().getContentAsString(), ShipInfoTest.class);
+
+        assertTrue("При полном и частичном обновлении корабля с одинаковыми скоростью, датой и isUsed рейтинг отличается.",
+                completeShip.rating == 0.22 && partialShip.rating == 0.22);
+    }
+
 
     @Autowired
     public void setContext(WebApplicationContext context) {
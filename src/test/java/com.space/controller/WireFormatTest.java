@@ -0,0 +1,94 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class WireFormatTest {
+
+    private static final TypeReference<List<ShipInfoTest>> SHIPS = new TypeReference<List<ShipInfoTest>>() {};
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void jsonIsDefaultTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/ships"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue("По умолчанию GET /rest/ships должен возвращать JSON.",
+                MediaType.APPLICATION_JSON.includes(MediaType.parseMediaType(result.getResponse().getContentType())));
+    }
+
+    //test2
+    @Test
+    public void smileTest() throws Exception {
+        List<ShipInfoTest> actual = read("application/x-jackson-smile", new ObjectMapper(new SmileFactory()));
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips());
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships в формате Smile.", actual.equals(expected));
+    }
+
+    //test3
+    @Test
+    public void cborTest() throws Exception {
+        List<ShipInfoTest> actual = read("application/cbor", new ObjectMapper(new CBORFactory()));
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips());
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships в формате CBOR.", actual.equals(expected));
+    }
+
+    private List<ShipInfoTest> read(String mediaType, ObjectMapper mapper) throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/ships").accept(MediaType.parseMediaType(mediaType)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue("Не тот Content-Type ответа.",
+                MediaType.parseMediaType(result.getResponse().getContentType()).includes(MediaType.parseMediaType(mediaType)));
+        return mapper.readValue(result.getResponse().getContentAsByteArray(), SHIPS);
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -1,8 +1,13 @@
 package com.space.controller.utils;
 
+import com.space.config.MetricsConfig;
+import com.space.config.MySQLFullTextDialect;
+import com.space.config.SqlStatementInspector;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
@@ -21,6 +26,8 @@ import java.util.Properties;
 @EnableTransactionManagement
 @ComponentScan("com.space.service")
 @EnableJpaRepositories(basePackages = "com.space.repository")
+@Import(MetricsConfig.class)
+@PropertySource("classpath:test.properties")
 public class TestDataSourceConfig {
 
     @Bean
@@ -63,7 +70,8 @@ public class TestDataSourceConfig {
     private Properties additionalProperties() {
         Properties properties = new Properties();
         properties.setProperty("hibernate.hbm2ddl.auto", "none");
-        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        properties.setProperty("hibernate.dialect", MySQLFullTextDialect.class.getName());
+        properties.setProperty("hibernate.session_factory.statement_inspector", SqlStatementInspector.class.getName());
 
         return properties;
     }
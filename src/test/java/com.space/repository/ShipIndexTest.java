@@ -0,0 +1,139 @@
+package com.space.repository;
+
+import com.space.config.QueryContext;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.model.ShipType;
+import com.space.service.ShipDataGenerator;
+import com.space.service.ShipSpecificationsBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Map;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+
+// EXPLAIN of the statements Hibernate generates for the filters of GET /rest/ships, over enough generated
+// ships that a range scan beats a full scan
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class})
+public class ShipIndexTest {
+
+    private static final int SEED_SHIPS = 20000;
+
+    // The table is loaded once for the class; every other test class reloads test.sql before each test
+    private static boolean seeded;
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ShipRepository shipRepository;
+    private ShipDataGenerator shipDataGenerator;
+
+    @Before
+    public void setup() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        if (!seeded) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("test.sql"));
+            populator.setSqlScriptEncoding("UTF-8");
+            populator.execute(dataSource);
+            shipDataGenerator.generate(SEED_SHIPS);
+            jdbcTemplate.execute("ANALYZE TABLE ship");
+            seeded = true;
+        }
+        QueryContext.open();
+    }
+
+    @After
+    public void tearDown() {
+        QueryContext.close();
+    }
+
+    //test1
+    @Test
+    public void speedRangeUsesSpeedIndex() {
+        assertRangeScan("idx_ship_speed", new ShipSpecificationsBuilder()
+                .with("speed", ">", 0.3)
+                .with("speed", "<", 0.31));
+    }
+
+    //test2
+    @Test
+    public void crewSizeRangeUsesCrewSizeIndex() {
+        assertRangeScan("idx_ship_crew_size", new ShipSpecificationsBuilder()
+                .with("crewSize", ">", 100)
+                .with("crewSize", "<", 200));
+    }
+
+    //test3
+    @Test
+    public void ratingRangeUsesRatingIndex() {
+        assertRangeScan("idx_ship_rating", new ShipSpecificationsBuilder()
+                .with("rating", ">", 5.0));
+    }
+
+    //test4
+    @Test
+    public void prodDateRangeUsesProdDateIndex() {
+        long after = new GregorianCalendar(3000, Calendar.JANUARY, 1).getTimeInMillis();
+        long before = new GregorianCalendar(3002, Calendar.JANUARY, 1).getTimeInMillis();
+
+        assertRangeScan("idx_ship_prod_date", new ShipSpecificationsBuilder()
+                        .with("prodDate", ">", after)
+                        .with("prodDate", "<", before),
+                new Timestamp(after), new Timestamp(before));
+    }
+
+    //test5
+    @Test
+    public void typeUsedRatingUsesCompositeIndex() {
+        assertRangeScan("idx_ship_type_used_rating", new ShipSpecificationsBuilder()
+                        .with("shipType", ":", ShipType.MILITARY)
+                        .with("isUsed", ":", false)
+                        .with("rating", ">", 1.0),
+                ShipType.MILITARY.name(), false);
+    }
+
+    // Runs the filter through the repository, then EXPLAINs the statement Hibernate prepared for it. Numbers are
+    // inlined into that statement as literals; params are the values bound to its placeholders, in order and
+    // with the JDBC types Hibernate binds them with.
+    private void assertRangeScan(String index, ShipSpecificationsBuilder criteria, Object... params) {
+        shipRepository.findAll(criteria.build());
+        String sql = QueryContext.current().repeated(1);
+
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        assertTrue("Запрос " + sql + " содержит " + placeholders + " параметров, а не " + params.length + ".",
+                placeholders == params.length);
+
+        Map<String, Object> plan = jdbcTemplate.queryForMap("EXPLAIN " + sql, params);
+        assertTrue("Для запроса " + sql + " выбран индекс " + plan.get("key") + ", а не " + index + ".",
+                index.equals(plan.get("key")));
+        assertTrue("Запрос " + sql + " читает индекс " + index + " не диапазоном (type=" + plan.get("type") + ").",
+                "range".equals(plan.get("type")));
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Autowired
+    public void setShipDataGenerator(ShipDataGenerator shipDataGenerator) {
+        this.shipDataGenerator = shipDataGenerator;
+    }
+}
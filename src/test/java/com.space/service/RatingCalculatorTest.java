@@ -0,0 +1,54 @@
+package com.space.service;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RatingCalculatorTest {
+
+    private RatingCalculator calculator = new RatingCalculator();
+
+    //test1
+    @Test
+    public void ratingMatchesCalendarRatingTest() {
+        Random random = new Random(3019);
+        long from = new GregorianCalendar(2800, Calendar.JANUARY, 1).getTimeInMillis();
+        long to = new GregorianCalendar(3020, Calendar.JANUARY, 1).getTimeInMillis();
+
+        for (int i = 0; i < 100000; i++) {
+            long prodDate = from + (long) (random.nextDouble() * (to - from));
+            double speed = Math.round((0.01 + random.nextDouble() * 0.98) * 100) / 100.0;
+            boolean isUsed = random.nextBoolean();
+
+            assertEquals(Double.doubleToLongBits(calendarRating(speed, prodDate, isUsed)),
+                    Double.doubleToLongBits(calculator.rating(speed, prodDate, isUsed)));
+        }
+    }
+
+    //test2
+    @Test
+    public void yearAtYearBoundariesTest() {
+        for (int year = 2800; year <= 3020; year++) {
+            long start = new GregorianCalendar(year, Calendar.JANUARY, 1).getTimeInMillis();
+
+            assertEquals(year, calculator.year(start));
+            assertEquals(year - 1, calculator.year(start - 1));
+        }
+    }
+
+    // ShipService.calcRating before RatingCalculator
+    private static Double calendarRating(Double speed, Long prodDateLong, Boolean isUsed) {
+        double k = isUsed ? 0.5 : 1;
+
+        Calendar c = Calendar.getInstance();
+        c.setTimeInMillis(prodDateLong);
+        Double rating = 80 * speed * k / (3019 - c.get(Calendar.YEAR) + 1);
+        rating = Math.round(rating * 100)/100.0;
+
+        return rating;
+    }
+}
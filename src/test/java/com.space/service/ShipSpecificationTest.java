@@ -0,0 +1,136 @@
+package com.space.service;
+
+import com.space.config.QueryContext;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class})
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ShipSpecificationTest {
+
+    private ShipRepository shipRepository;
+
+    @After
+    public void tearDown() {
+        QueryContext.close();
+    }
+
+    //test1
+    @Test
+    public void ngramSearchableTest() {
+        assertTrue(ShipSpecification.ngramSearchable("ra"));
+        assertTrue(ShipSpecification.ngramSearchable("Eagle Transporter"));
+        assertTrue(ShipSpecification.ngramSearchable(" Terra  "));
+
+        assertFalse(ShipSpecification.ngramSearchable(""));
+        assertFalse(ShipSpecification.ngramSearchable("   "));
+        assertFalse(ShipSpecification.ngramSearchable("a"));
+        assertFalse(ShipSpecification.ngramSearchable("a b"));
+        assertFalse(ShipSpecification.ngramSearchable("r D"));
+        assertFalse(ShipSpecification.ngramSearchable("Terra V"));
+    }
+
+    //test2
+    @Test
+    public void valueConvertedToAttributeTypeTest() {
+        assertEquals(0.5, ShipSpecification.typedValue(Double.class, "0.5"));
+        assertEquals(0.5, ShipSpecification.typedValue(Double.class, 0.5f));
+        assertEquals(100, ShipSpecification.typedValue(Integer.class, "100"));
+        assertEquals(100, ShipSpecification.typedValue(Integer.class, 100L));
+        assertEquals(7L, ShipSpecification.typedValue(Long.class, 7));
+        assertEquals(new Date(0L), ShipSpecification.typedValue(Date.class, 0L));
+        assertEquals(false, ShipSpecification.typedValue(Boolean.class, "false"));
+        assertEquals(ShipType.MILITARY, ShipSpecification.typedValue(ShipType.class, "MILITARY"));
+    }
+
+    //test3
+    @Test
+    public void numbersComparedAsNumbersTest() {
+        QueryContext context = QueryContext.open();
+        List<Ship> ships = shipRepository.findAll(new ShipSpecificationsBuilder()
+                .with("crewSize", ">", "100")
+                .with("speed", "<", "0.5")
+                .build());
+
+        // inlined as numeric literals, never as quoted text
+        String sql = context.repeated(1);
+        assertTrue(sql, sql.contains("crewSize>=100") && sql.contains("speed<=0.5") && sql.indexOf('\'') < 0);
+        assertFalse(ships.isEmpty());
+        assertEquals(expected(ship -> ship.getCrewSize() >= 100 && ship.getSpeed() <= 0.5), ids(ships));
+    }
+
+    //test4
+    @Test
+    public void datesComparedAsDatesTest() {
+        long after = new GregorianCalendar(3000, Calendar.JANUARY, 1).getTimeInMillis();
+        long before = new GregorianCalendar(3010, Calendar.JANUARY, 1).getTimeInMillis();
+
+        QueryContext context = QueryContext.open();
+        List<Ship> ships = shipRepository.findAll(new ShipSpecificationsBuilder()
+                .with("prodDate", ">", after)
+                .with("prodDate", "<", before)
+                .build());
+
+        String sql = context.repeated(1);
+        assertTrue(sql, sql.contains("prodDate>=?") && sql.contains("prodDate<=?"));
+        assertFalse(ships.isEmpty());
+        assertEquals(expected(ship -> ship.getProdDate().getTime() >= after && ship.getProdDate().getTime() <= before),
+                ids(ships));
+    }
+
+    //test5
+    @Test
+    public void likeWildcardsMatchedLiterallyTest() {
+        Ship ship = shipRepository.save(new Ship("Sky_Lab 100%", "Mars", ShipType.MERCHANT,
+                new GregorianCalendar(3005, Calendar.JANUARY, 1).getTime(), false, 0.5, 10, 1.0));
+
+        // "~" is the FULLTEXT search; one-character terms go to its LIKE alone
+        for (String operation : new String[]{":", "~"}) {
+            for (String text : new String[]{"_", "%"}) {
+                List<Ship> ships = shipRepository.findAll(new ShipSpecificationsBuilder()
+                        .with("name", operation, text)
+                        .build());
+                assertEquals(operation + text, Collections.singletonList(ship.getId()), ids(ships));
+            }
+            assertTrue(shipRepository.findAll(new ShipSpecificationsBuilder()
+                    .with("name", operation, "\\")
+                    .build()).isEmpty());
+        }
+    }
+
+    private List<Long> expected(Predicate<Ship> filter) {
+        return ids(shipRepository.findAll().stream().filter(filter).collect(Collectors.toList()));
+    }
+
+    private static List<Long> ids(List<Ship> ships) {
+        return ships.stream().map(Ship::getId).sorted().collect(Collectors.toList());
+    }
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+}
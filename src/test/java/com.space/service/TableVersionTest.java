@@ -0,0 +1,33 @@
+package com.space.service;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TableVersionTest {
+
+    //test1
+    @Test
+    public void versionChangesOnWriteTest() {
+        TableVersion tableVersion = new TableVersion(60);
+        long version = tableVersion.current();
+
+        assertEquals(version, tableVersion.current());
+        assertEquals(version + 1, tableVersion.bump());
+        assertEquals(version + 1, tableVersion.current());
+    }
+
+    //test2
+    @Test
+    public void versionExpiresWithoutWritesTest() throws InterruptedException {
+        TableVersion tableVersion = new TableVersion(1);
+        long version = tableVersion.current();
+        long lastModified = tableVersion.lastModified();
+
+        Thread.sleep(1100);
+
+        assertTrue(tableVersion.current() > version);
+        assertTrue(tableVersion.lastModified() > lastModified);
+    }
+}
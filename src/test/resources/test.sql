@@ -1,6 +1,7 @@
 USE test;
 
 DROP TABLE IF EXISTS ship;
+DROP TABLE IF EXISTS rating_recompute;
 
 CREATE TABLE ship
 (
@@ -13,6 +14,29 @@ CREATE TABLE ship
     speed    DOUBLE      NULL,
     crewSize INT(4)      NULL,
     rating   DOUBLE      NULL,
+    version  BIGINT(20)  NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARACTER SET = utf8;
+
+CREATE INDEX idx_ship_type_used_rating ON ship (shipType, isUsed, rating, id);
+CREATE INDEX idx_ship_prod_date ON ship (prodDate, id);
+CREATE INDEX idx_ship_speed ON ship (speed, id);
+CREATE INDEX idx_ship_rating ON ship (rating, id);
+CREATE INDEX idx_ship_crew_size ON ship (crewSize, id);
+
+SET SESSION innodb_ft_enable_stopword = OFF;
+CREATE FULLTEXT INDEX ft_ship_name ON ship (name) WITH PARSER ngram;
+CREATE FULLTEXT INDEX ft_ship_planet ON ship (planet) WITH PARSER ngram;
+SET SESSION innodb_ft_enable_stopword = ON;
+
+CREATE TABLE rating_recompute
+(
+    id        INT        NOT NULL,
+    lastId    BIGINT(20) NOT NULL,
+    processed BIGINT(20) NOT NULL,
+    finished  BIT(1)     NOT NULL,
     PRIMARY KEY (id)
 )
     ENGINE = InnoDB